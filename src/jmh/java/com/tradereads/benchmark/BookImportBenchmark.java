@@ -0,0 +1,107 @@
+package com.tradereads.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradereads.dto.BookImportReportDTO;
+import com.tradereads.model.User;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.JwtService;
+
+// One whole bulk import of a generated CSV per invocation through POST /api/books/my-books/import (so with the request's
+// open-in-view persistence context around it), each into a fresh owner so no row is a duplicate.
+// Compare batch sizes with -p batchSize=1,500 (1 is the row-at-a-time cost of POST /api/books/my-books).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class BookImportBenchmark {
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private JwtService jwtService;
+    private ObjectMapper objectMapper;
+    private HttpClient client;
+    private URI importUri;
+    private byte[] csv;
+    private String token;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedTradereads.startServer("book-import", "books.import.batch-size=" + batchSize);
+        userRepository = context.getBean(UserRepository.class);
+        jwtService = context.getBean(JwtService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        importUri = URI.create("http://localhost:" + EmbeddedTradereads.port(context) + "/api/books/my-books/import");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+
+        StringBuilder body = new StringBuilder("title,author,isbn,genre,condition,description,listingType\n");
+        for (int i = 0; i < rows; i++) {
+            body.append("Title ").append(i).append(",Author ").append(i % 997).append(",978").append(String.format("%010d", i))
+                .append(",Fiction,Good,\"Description of book ").append(i).append("\",").append(i % 2 == 0 ? "TRADE" : "GIVEAWAY").append('\n');
+        }
+        csv = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void newOwner() {
+        invocation++;
+        User owner = userRepository.save(new User("importer" + invocation, "{noop}password", "USER", "importer" + invocation + "@example.com", null));
+        token = jwtService.generateToken(owner.getUsername(), owner.getId(), owner.getUserRole());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public BookImportReportDTO importCsv() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(importUri)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "text/csv")
+            .timeout(Duration.ofMinutes(10))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(csv))
+            .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Import returned " + response.statusCode());
+        }
+        BookImportReportDTO report = objectMapper.readValue(response.body(), BookImportReportDTO.class);
+        if (report.getImported() != rows) {
+            throw new IllegalStateException("Imported " + report.getImported() + " of " + rows);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,90 @@
+package com.tradereads.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradereads.model.User;
+import com.tradereads.service.BookService;
+
+// Public /api/books list path: full Book entities (eager owner selects) vs BookListingDTO projections.
+// Run with -prof gc for allocation per op; SQL statements per op = statements / invocations.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookListingBenchmark {
+    @Param({"1000"})
+    public int books;
+
+    @Param({"200"})
+    public int owners;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private ObjectMapper objectMapper;
+    private Statistics statistics;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class QueryCounter {
+        public long statements;
+        public long invocations;
+
+        void record(long statementsBefore, Statistics statistics) {
+            statements += statistics.getPrepareStatementCount() - statementsBefore;
+            invocations++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedTradereads.start("book-listing");
+        List<User> users = EmbeddedTradereads.seedUsers(context, owners);
+        EmbeddedTradereads.seedBooks(context, users, books, 42L);
+
+        bookService = context.getBean(BookService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        statistics = EmbeddedTradereads.statistics(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityList(QueryCounter counter) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        byte[] json = objectMapper.writeValueAsBytes(bookService.getAllBooks());
+        counter.record(before, statistics);
+        return json;
+    }
+
+    @Benchmark
+    public byte[] projectionList(QueryCounter counter) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        byte[] json = objectMapper.writeValueAsBytes(bookService.getBookListings(null, null, null, null));
+        counter.record(before, statistics);
+        return json;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tradereads.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tradereads.dto.BookListingDTO;
+import com.tradereads.dto.CursorPageDTO;
+import com.tradereads.model.Book;
+import com.tradereads.model.User;
+import com.tradereads.service.BookSearchService;
+import com.tradereads.service.BookService;
+
+// The BookService reads behind the public and my-books endpoints, against the embedded H2 with a seeded catalog
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+    @Param({"10000"})
+    public int books;
+
+    @Param({"1000"})
+    public int owners;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private List<Book> seededBooks;
+    private List<User> seededUsers;
+    private String deepCursor;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedTradereads.start("book-service");
+        seededUsers = EmbeddedTradereads.seedUsers(context, owners);
+        seededBooks = EmbeddedTradereads.seedBooks(context, seededUsers, books, 42L);
+        // The index is built on startup, before the seed
+        context.getBean(BookSearchService.class).rebuild();
+
+        bookService = context.getBean(BookService.class);
+        // A cursor halfway down the catalog, to show keyset pages cost the same at any depth
+        CursorPageDTO<BookListingDTO> page = null;
+        for (int i = 0; i < books / 2 / BookService.MAX_PAGE_SIZE; i++) {
+            page = bookService.getCatalogPage(page == null ? null : page.getNextCursor(), BookService.MAX_PAGE_SIZE, null, null, null);
+        }
+        deepCursor = page == null ? null : page.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book bookById() {
+        return bookService.getBookById(seededBooks.get(random.nextInt(seededBooks.size())).getId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Book> booksOfOwner() {
+        return bookService.getBooksByUserId(seededUsers.get(random.nextInt(seededUsers.size())).getId());
+    }
+
+    @Benchmark
+    public List<BookListingDTO> listingsByGenre() {
+        return bookService.getBookListings("Poetry", null, null, null);
+    }
+
+    @Benchmark
+    public CursorPageDTO<BookListingDTO> catalogFirstPage() {
+        return bookService.getCatalogPage(null, BookService.DEFAULT_PAGE_SIZE, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPageDTO<BookListingDTO> catalogDeepPage() {
+        return bookService.getCatalogPage(deepCursor, BookService.DEFAULT_PAGE_SIZE, null, null, null);
+    }
+
+    @Benchmark
+    public List<BookListingDTO> search() {
+        return bookService.searchBooks("description book", BookService.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,122 @@
+package com.tradereads.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tradereads.TradereadsApplication;
+import com.tradereads.model.Book;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.PendingTradeCounterReconciler;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Boots the application against an in-memory H2 (PostgreSQL mode) and seeds it deterministically for benchmarks
+final class EmbeddedTradereads {
+    private static final String[] GENRES = {"Fiction", "Fantasy", "Mystery", "History", "Science", "Poetry", "Romance", "Horror"};
+
+    private EmbeddedTradereads() {}
+
+    // Extra properties override the defaults in builder()
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return builder(databaseName).web(WebApplicationType.NONE).run(args(properties));
+    }
+
+    // Full HTTP stack on a random port, see port()
+    static ConfigurableApplicationContext startServer(String databaseName, String... properties) {
+        return builder(databaseName)
+            .web(WebApplicationType.SERVLET)
+            .properties("server.port=0")
+            .run(args(properties));
+    }
+
+    private static String[] args(String... properties) {
+        return Arrays.stream(properties).map(p -> "--" + p).toArray(String[]::new);
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static SpringApplicationBuilder builder(String databaseName) {
+        return new SpringApplicationBuilder(TradereadsApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driverClassName=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.root=WARN"
+            );
+    }
+
+    static List<User> seedUsers(ConfigurableApplicationContext context, int count) {
+        // Placeholder hash; benchmarks that log in pass a real one below
+        return seedUsers(context, count, "{noop}password");
+    }
+
+    // user0..userN-1, all sharing one password hash so seeding does not pay for N BCrypt rounds
+    static List<User> seedUsers(ConfigurableApplicationContext context, int count, String passwordHash) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("user" + i, passwordHash, "USER", "user" + i + "@example.com", null));
+        }
+        return userRepository.saveAll(users);
+    }
+
+    static List<Book> seedBooks(ConfigurableApplicationContext context, List<User> owners, int count, long seed) {
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(new Book(
+                "Title " + i,
+                "Author " + random.nextInt(count / 10 + 1),
+                "978" + String.format("%010d", i),
+                GENRES[random.nextInt(GENRES.length)],
+                "Good",
+                "Description of book " + i,
+                random.nextInt(4) == 0 ? Book.BookStatus.TRADED : Book.BookStatus.AVAILABLE,
+                random.nextBoolean() ? Book.ListingType.TRADE : Book.ListingType.GIVEAWAY,
+                owners.get(random.nextInt(owners.size()))
+            ));
+        }
+        return bookRepository.saveAll(books);
+    }
+
+    // PENDING requests from random requesters for random AVAILABLE books of other users, then counters recomputed to match
+    static List<TradeRequest> seedTradeRequests(ConfigurableApplicationContext context, List<User> users, List<Book> books, int count, long seed) {
+        TradeRequestRepository tradeRequestRepository = context.getBean(TradeRequestRepository.class);
+        List<Book> available = books.stream().filter(b -> b.getStatus() == Book.BookStatus.AVAILABLE).toList();
+        Random random = new Random(seed);
+        List<TradeRequest> requests = new ArrayList<>(count);
+        while (requests.size() < count) {
+            Book requested = available.get(random.nextInt(available.size()));
+            User requester = users.get(random.nextInt(users.size()));
+            if (!requester.getId().equals(requested.getOwner().getId())) {
+                requests.add(new TradeRequest(requester, requested.getOwner(), requested, null, "Seeded request " + requests.size()));
+            }
+        }
+        List<TradeRequest> saved = tradeRequestRepository.saveAll(requests);
+        context.getBean(PendingTradeCounterReconciler.class).reconcile();
+        return saved;
+    }
+
+    static Statistics statistics(ConfigurableApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,88 @@
+package com.tradereads.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradereads.model.Book;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.User;
+
+// Response body cost of the entity lists the API returns (book lists, incoming/outgoing trade requests), no DB involved.
+// The mapper is built the way Spring Boot builds the application's one. Run with -prof gc for bytes allocated per list.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class JsonSerializationBenchmark {
+    private static final int OWNERS = 100;
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<TradeRequest> tradeRequests;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<User> owners = new ArrayList<>(OWNERS);
+        for (int i = 0; i < OWNERS; i++) {
+            User user = new User("user" + i, "{noop}password", "USER", "user" + i + "@example.com", null);
+            user.setId((long) i + 1);
+            owners.add(user);
+        }
+
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = new Book("Title " + i, "Author " + (i % 97), "978" + String.format("%010d", i), "Fiction", "Good",
+                "Description of book " + i, Book.BookStatus.AVAILABLE, Book.ListingType.TRADE, owners.get(i % OWNERS));
+            book.setId((long) i + 1);
+            book.setVersion(0L);
+            books.add(book);
+        }
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        tradeRequests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book requested = books.get(i);
+            Book offered = books.get((i + 1) % size);
+            TradeRequest tradeRequest = new TradeRequest(offered.getOwner(), requested.getOwner(), requested, offered, "Trade request " + i);
+            tradeRequest.setId((long) i + 1);
+            tradeRequest.setVersion(0L);
+            ReflectionTestUtils.setField(tradeRequest, "createdAt", now);
+            tradeRequests.add(tradeRequest);
+        }
+    }
+
+    @Benchmark
+    public byte[] bookList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] tradeRequestList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tradeRequests);
+    }
+}
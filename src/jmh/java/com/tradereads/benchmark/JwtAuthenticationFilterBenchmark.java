@@ -0,0 +1,92 @@
+package com.tradereads.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.tradereads.components.JwtAuthenticationFilter;
+import com.tradereads.components.JwtAuthenticationFilter.CustomAuthenticationDetails;
+import com.tradereads.components.VerifiedTokenCache;
+import com.tradereads.service.JwtService;
+
+// Filter hot path: the old five-parse sequence vs the single verifyToken() parse vs a verified-token cache hit
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter cachingFilter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = JwtServiceBenchmark.newJwtService();
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtService, false, 0, 600000));
+        cachingFilter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtService, true, 10000, 600000));
+        token = jwtService.generateToken("benchmark-user", 42L, "USER");
+    }
+
+    @Benchmark
+    public Authentication legacyFivePassAuthentication() {
+        try {
+            String username = jwtService.extractUsername(token);
+            if (username != null && jwtService.validateToken(token, username)) {
+                String role = jwtService.extractRole(token);
+                Long userId = jwtService.extractUserId(token);
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    username,
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                );
+                authToken.setDetails(new CustomAuthenticationDetails(userId, role));
+                return authToken;
+            }
+            return null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication filterSinglePass() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Authentication filterVerifiedTokenCacheHit() throws Exception {
+        return authenticate(cachingFilter);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter jwtFilter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trades/incoming");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tradereads.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.tradereads.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Per-token parse cost: the old per-call key derivation + parser build vs the cached parser
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    static final String SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = newJwtService();
+        token = jwtService.generateToken("benchmark-user", 42L, "USER");
+    }
+
+    static JwtService newJwtService() {
+        JwtService service = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", 600000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public Claims parseRebuildingKeyAndParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public String parseWithCachedParser() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtService.generateToken("benchmark-user", 42L, "USER");
+    }
+}
@@ -0,0 +1,411 @@
+package com.tradereads.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tradereads.model.Book;
+import com.tradereads.model.User;
+import com.tradereads.service.BookSearchService;
+import com.tradereads.service.BookService;
+import com.tradereads.service.PasswordHashingService;
+import com.tradereads.service.TradeCycleMatcher;
+
+// End-to-end load test over real HTTP: boots the application on the embedded H2 (PostgreSQL mode), seeds users, books and
+// pending trade requests from a fixed seed, then runs a closed loop of clients, each one logged-in user repeating a weighted
+// mix of what the frontend does. Reports throughput and p50/p95/p99 per endpoint, on stdout and as JSON when out= is given.
+// Not JMH: the point is one shared run of the whole mix, with percentiles per endpoint rather than per benchmark method.
+//
+//   mvn -B -Pbenchmark test-compile exec:exec@load-test -Dload.args="users=500 books=5000 trades=2000 clients=64 duration=60"
+//
+// Arguments are key=value; keys with a dot are passed to the application (e.g. spring.threads.virtual.enabled=true).
+public final class LoadTest {
+    private static final String PASSWORD = "load-test-password";
+
+    // Weights are percentages of client iterations. Logins are rare next to page views: each one is a full BCrypt round.
+    private enum Action {
+        BROWSE_CATALOG(35), VIEW_BOOK(10), SEARCH(5), POLL_COUNTS(30), CREATE_TRADE(10), ACCEPT_TRADE(5), REFRESH(4), LOGIN(1);
+
+        private final int weight;
+
+        Action(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final String[] SEARCH_TERMS = {"fiction", "fantasy", "mystery", "poetry", "title 12", "author 3", "description book"};
+
+    // A book as the seeded snapshot saw it; clients act on this stale view the way a browser tab would
+    private record BookRef(long id, long ownerId, boolean giveaway) {}
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpClient client;
+    private String baseUrl;
+    private List<BookRef> allBooks;
+    private List<BookRef> availableBooks;
+    private Map<Long, List<Long>> availableBooksByOwner;
+    private List<User> users;
+    private long measureFrom;
+    private long deadline;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("users", "200");
+        options.put("books", "5000");
+        options.put("trades", "2000");
+        options.put("seed", "42");
+        options.put("clients", "32");
+        options.put("warmup", "10");
+        options.put("duration", "30");
+        options.put("think", "0");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private int option(String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private void run() throws Exception {
+        String[] applicationProperties = options.entrySet().stream()
+            .filter(e -> e.getKey().contains("."))
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .toArray(String[]::new);
+
+        long seed = Long.parseLong(options.get("seed"));
+        ConfigurableApplicationContext context = EmbeddedTradereads.startServer("load-test", applicationProperties);
+        try {
+            long seedStart = System.nanoTime();
+            String passwordHash = context.getBean(PasswordHashingService.class).encode(PASSWORD);
+            users = EmbeddedTradereads.seedUsers(context, option("users"), passwordHash);
+            List<Book> books = EmbeddedTradereads.seedBooks(context, users, option("books"), seed);
+            EmbeddedTradereads.seedTradeRequests(context, users, books, option("trades"), seed + 1);
+            // Both are built on startup, before the seed
+            context.getBean(BookSearchService.class).rebuild();
+            context.getBean(TradeCycleMatcher.class).loadOnStartup();
+            System.out.printf("Seeded %d users, %d books, %d trade requests in %d ms%n",
+                users.size(), books.size(), option("trades"), (System.nanoTime() - seedStart) / 1_000_000);
+
+            allBooks = books.stream()
+                .map(b -> new BookRef(b.getId(), b.getOwner().getId(), b.getListingType() == Book.ListingType.GIVEAWAY))
+                .toList();
+            availableBooks = new ArrayList<>();
+            availableBooksByOwner = new HashMap<>();
+            for (int i = 0; i < books.size(); i++) {
+                if (books.get(i).getStatus() == Book.BookStatus.AVAILABLE) {
+                    BookRef ref = allBooks.get(i);
+                    availableBooks.add(ref);
+                    availableBooksByOwner.computeIfAbsent(ref.ownerId(), k -> new ArrayList<>()).add(ref.id());
+                }
+            }
+
+            baseUrl = "http://localhost:" + EmbeddedTradereads.port(context);
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+            try {
+                report(drive(seed));
+            } finally {
+                client.close();
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private Map<String, Samples> drive(long seed) throws InterruptedException {
+        int clientCount = option("clients");
+        long start = System.nanoTime();
+        measureFrom = start + Duration.ofSeconds(option("warmup")).toNanos();
+        deadline = measureFrom + Duration.ofSeconds(option("duration")).toNanos();
+
+        List<Client> clients = new ArrayList<>(clientCount);
+        List<Thread> threads = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            Client c = new Client(users.get(i % users.size()), new SplittableRandom(seed + i));
+            clients.add(c);
+            threads.add(Thread.ofPlatform().name("load-client-" + i).start(c));
+        }
+        System.out.printf("Running %d clients: %d s warmup, %d s measured%n", clientCount, option("warmup"), option("duration"));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Client c : clients) {
+            c.samples.forEach((endpoint, samples) -> merged.computeIfAbsent(endpoint, k -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+
+    private void report(Map<String, Samples> results) throws IOException {
+        double seconds = option("duration");
+        Samples total = new Samples();
+        results.values().forEach(total::addAll);
+
+        System.out.printf("%n%-32s %8s %9s %6s %6s %9s %9s %9s %9s%n", "endpoint", "count", "req/s", "4xx", "5xx", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, Samples> entry : results.entrySet()) {
+            rows.add(printRow(entry.getKey(), entry.getValue(), seconds));
+        }
+        printRow("total", total, seconds);
+
+        String out = options.get("out");
+        if (out != null && !out.isBlank()) {
+            ObjectNode json = objectMapper.createObjectNode();
+            json.putPOJO("options", options);
+            json.putPOJO("total", summarize(total, seconds));
+            json.putPOJO("endpoints", rows);
+            Path path = Path.of(out);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), json);
+            System.out.println("\nResults written to " + path.toAbsolutePath());
+        }
+    }
+
+    private Map<String, Object> printRow(String endpoint, Samples samples, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", endpoint);
+        row.putAll(summarize(samples, seconds));
+        System.out.printf("%-32s %8d %9.1f %6d %6d %9.2f %9.2f %9.2f %9.2f%n", endpoint, samples.count, row.get("throughput"),
+            samples.clientErrors, samples.serverErrors, row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"));
+        return row;
+    }
+
+    private static Map<String, Object> summarize(Samples samples, double seconds) {
+        long[] sorted = Arrays.copyOf(samples.nanos, samples.count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", samples.count);
+        summary.put("throughput", samples.count / seconds);
+        summary.put("clientErrors", samples.clientErrors);
+        summary.put("serverErrors", samples.serverErrors);
+        summary.put("p50Ms", percentileMillis(sorted, 50));
+        summary.put("p95Ms", percentileMillis(sorted, 95));
+        summary.put("p99Ms", percentileMillis(sorted, 99));
+        summary.put("maxMs", percentileMillis(sorted, 100));
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+
+    // Latencies of one endpoint; 4xx are kept apart from failures since stale views make some of them expected
+    // (a book traded away by another client, a request accepted twice)
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int clientErrors;
+        private int serverErrors;
+
+        void add(long latencyNanos, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else if (status >= 500 || status < 0) {
+                serverErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+        }
+    }
+
+    // One user in one browser: logs in, then loops over the mix until the deadline
+    private final class Client implements Runnable {
+        private final User user;
+        private final SplittableRandom random;
+        private final List<Long> ownBooks;
+        private final Map<String, Samples> samples = new HashMap<>();
+        private String accessToken;
+        private String refreshToken;
+        private String catalogCursor;
+
+        Client(User user, SplittableRandom random) {
+            this.user = user;
+            this.random = random;
+            this.ownBooks = availableBooksByOwner.getOrDefault(user.getId(), List.of());
+        }
+
+        @Override
+        public void run() {
+            int think = option("think");
+            try {
+                while (System.nanoTime() < deadline) {
+                    switch (accessToken == null ? Action.LOGIN : pick()) {
+                        case BROWSE_CATALOG -> browseCatalog();
+                        case VIEW_BOOK -> send("GET /api/books/{id}", get("/api/books/" + allBooks.get(random.nextInt(allBooks.size())).id()));
+                        case SEARCH -> send("GET /api/books/search", get("/api/books/search?q=" + encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)])));
+                        case POLL_COUNTS -> send("GET /api/trades/counts", authorized("/api/trades/counts").GET().build());
+                        case CREATE_TRADE -> createTrade();
+                        case ACCEPT_TRADE -> acceptTrade();
+                        case REFRESH -> refresh();
+                        case LOGIN -> login();
+                    }
+                    if (think > 0) {
+                        Thread.sleep(random.nextInt(2 * think + 1));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Action pick() {
+            int roll = random.nextInt(100);
+            for (Action action : Action.values()) {
+                roll -= action.weight;
+                if (roll < 0) {
+                    return action;
+                }
+            }
+            return Action.POLL_COUNTS;
+        }
+
+        private void login() throws InterruptedException {
+            ObjectNode body = objectMapper.createObjectNode().put("username", user.getUsername()).put("password", PASSWORD);
+            JsonNode response = send("POST /api/auth/login", post("/api/auth/login", body));
+            if (response != null) {
+                accessToken = response.path("tokens").path("accessToken").asText();
+                refreshToken = response.path("tokens").path("refreshToken").asText();
+            }
+        }
+
+        private void refresh() throws InterruptedException {
+            // The endpoint sits behind authentication, so it is called while the access token is still valid
+            ObjectNode body = objectMapper.createObjectNode().put("refreshToken", refreshToken);
+            JsonNode response = send("POST /api/auth/refresh-token", authorized("/api/auth/refresh-token")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build());
+            if (response != null) {
+                accessToken = response.path("accessToken").asText();
+            }
+        }
+
+        // Half the time the next page of what this user is scrolling through, otherwise back to the top
+        private void browseCatalog() throws InterruptedException {
+            String path = "/api/books/catalog?limit=" + BookService.DEFAULT_PAGE_SIZE;
+            if (catalogCursor != null && random.nextBoolean()) {
+                path += "&cursor=" + encode(catalogCursor);
+            }
+            JsonNode page = send("GET /api/books/catalog", get(path));
+            catalogCursor = page == null || page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+        }
+
+        // A request for someone else's book, offering one of ours when the listing is a trade
+        private void createTrade() throws InterruptedException {
+            BookRef requested = availableBooks.get(random.nextInt(availableBooks.size()));
+            if (requested.ownerId() == user.getId()) {
+                return;
+            }
+            ObjectNode body = objectMapper.createObjectNode().put("requestedBookId", requested.id()).put("message", "Load test");
+            if (!requested.giveaway() && !ownBooks.isEmpty()) {
+                body.put("offeredBookId", ownBooks.get(random.nextInt(ownBooks.size())));
+            }
+            send("POST /api/trades", authorized("/api/trades").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build());
+        }
+
+        // Open the pending inbox and accept one of them
+        private void acceptTrade() throws InterruptedException {
+            JsonNode incoming = send("GET /api/trades/incoming", authorized("/api/trades/incoming?status=PENDING").GET().build());
+            if (incoming == null || incoming.isEmpty()) {
+                return;
+            }
+            long id = incoming.get(random.nextInt(incoming.size())).path("id").asLong();
+            send("PUT /api/trades/{id}/accept", authorized("/api/trades/" + id + "/accept").PUT(HttpRequest.BodyPublishers.noBody()).build());
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+        }
+
+        private HttpRequest post(String path, ObjectNode body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + accessToken);
+        }
+
+        // Times the call (samples before the end of the warmup are dropped) and returns the parsed body of a 200
+        private JsonNode send(String endpoint, HttpRequest request) throws InterruptedException {
+            long started = System.nanoTime();
+            int status;
+            String body = null;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                body = response.body();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= measureFrom && started < deadline) {
+                samples.computeIfAbsent(endpoint, k -> new Samples()).add(elapsed, status);
+            }
+            if (status != 200 || body == null) {
+                return null;
+            }
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
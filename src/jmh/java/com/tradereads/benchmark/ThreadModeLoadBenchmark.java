@@ -0,0 +1,119 @@
+package com.tradereads.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.User;
+import com.tradereads.service.JwtService;
+
+// Throughput and latency percentiles (p0.99 in the SampleTime rows) of two JDBC-bound endpoints over real HTTP,
+// with Tomcat on its platform thread pool vs one virtual thread per request. Both modes share the same JDBC pool,
+// so the difference is only in how waiting requests are parked. More clients than Tomcat threads: -t 512.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ThreadModeLoadBenchmark {
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    @Param({"20"})
+    public int jdbcPoolSize;
+
+    @Param({"2000"})
+    public int books;
+
+    @Param({"500"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI booksUri;
+    private URI incomingUri;
+    private List<String> tokens;
+    private final AtomicInteger nextClient = new AtomicInteger();
+
+    // Each client thread is one logged-in user
+    @State(Scope.Thread)
+    public static class Client {
+        String token;
+
+        @Setup
+        public void login(ThreadModeLoadBenchmark benchmark) {
+            token = benchmark.tokens.get(benchmark.nextClient.getAndIncrement() % benchmark.tokens.size());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = EmbeddedTradereads.startServer("thread-mode-" + threadMode,
+            "spring.threads.virtual.enabled=" + threadMode.equals("virtual"),
+            "server.tomcat.threads.max=200",
+            "spring.datasource.hikari.maximum-pool-size=" + jdbcPoolSize,
+            "spring.datasource.hikari.minimum-idle=" + jdbcPoolSize,
+            "spring.datasource.hikari.connection-timeout=30000");
+        List<User> seededUsers = EmbeddedTradereads.seedUsers(context, users);
+        List<Book> seededBooks = EmbeddedTradereads.seedBooks(context, seededUsers, books, 42L);
+        EmbeddedTradereads.seedTradeRequests(context, seededUsers, seededBooks, books, 7L);
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        tokens = seededUsers.stream().map(u -> jwtService.generateToken(u.getUsername(), u.getId(), u.getUserRole())).toList();
+
+        String base = "http://localhost:" + EmbeddedTradereads.port(context);
+        // One genre is ~1/8 of the catalog, enough rows to make serialization part of the cost
+        booksUri = URI.create(base + "/api/books?genre=Fiction");
+        incomingUri = URI.create(base + "/api/trades/incoming");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listBooks() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(booksUri).GET().build());
+    }
+
+    @Benchmark
+    public int incomingTrades(Client user) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(incomingUri).header("Authorization", "Bearer " + user.token).GET().build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,106 @@
+package com.tradereads.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tradereads.service.TradeCycleGraph;
+import com.tradereads.service.TradeCycleGraph.Wish;
+
+// Incremental cycle search on a synthetic wish graph vs building (and searching) the whole graph from scratch.
+// Users own BOOKS_PER_USER books each and wish for as many; most wishes stay inside a community of
+// COMMUNITY_SIZE users, which is what makes short exchange cycles common in practice.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx3g"})
+public class TradeCycleGraphBenchmark {
+    private static final int BOOKS_PER_USER = 10;
+    private static final int COMMUNITY_SIZE = 50;
+    private static final double IN_COMMUNITY_SHARE = 0.8;
+    private static final int PROBES = 4096;
+
+    @Param({"100000", "1000000"})
+    public int books;
+
+    private Wish[] wishes;
+    private TradeCycleGraph graph;
+    private Wish[] probes;
+    private int nextProbe;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        int users = books / BOOKS_PER_USER;
+
+        wishes = new Wish[books];
+        for (int i = 0; i < books; i++) {
+            wishes[i] = randomWish(random, i + 1, users);
+        }
+        probes = new Wish[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = randomWish(random, books + i + 1L, users);
+        }
+
+        graph = new TradeCycleGraph(10);
+        long cycles = 0;
+        for (Wish wish : wishes) {
+            cycles += graph.addWish(wish).size();
+        }
+        System.out.printf("%n%d wishes between %d users, %d cycles proposed during build%n", graph.wishCount(), users, cycles);
+    }
+
+    // One new pending request: index it, search the 3-/4-way cycles it closes, then take it back out
+    @Benchmark
+    public int incrementalAddWish() {
+        Wish probe = probes[nextProbe++ & (PROBES - 1)];
+        List<List<Long>> cycles = graph.addWish(probe);
+        graph.removeWish(probe.requestId());
+        return cycles.size();
+    }
+
+    // What a periodic full recompute would pay on every run
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long fullRecompute() {
+        TradeCycleGraph fresh = new TradeCycleGraph(10);
+        long cycles = 0;
+        for (Wish wish : wishes) {
+            cycles += fresh.addWish(wish).size();
+        }
+        return cycles;
+    }
+
+    private static Wish randomWish(SplittableRandom random, long requestId, int users) {
+        int requester = random.nextInt(users);
+        int owner;
+        do {
+            if (random.nextDouble() < IN_COMMUNITY_SHARE) {
+                int community = requester / COMMUNITY_SIZE;
+                owner = Math.min(users - 1, community * COMMUNITY_SIZE + random.nextInt(COMMUNITY_SIZE));
+            } else {
+                owner = random.nextInt(users);
+            }
+        } while (owner == requester);
+        long book = (long) owner * BOOKS_PER_USER + random.nextInt(BOOKS_PER_USER);
+        return new Wish(requestId, requester, owner, book);
+    }
+}
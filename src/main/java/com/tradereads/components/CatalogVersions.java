@@ -0,0 +1,79 @@
+package com.tradereads.components;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+// Version counters behind the ETags of the public book endpoints, bumped by BookService after every committed book change.
+// The ETags are built from memory only, so a matching If-None-Match is answered with 304 before any query runs.
+// Counters are per process: the epoch keeps ETags of another run (or instance) from ever matching, but one instance does not
+// see another's changes, so behind a load balancer either pin clients or set books.http-cache.enabled=false.
+@Component
+public class CatalogVersions {
+    private final boolean enabled;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    // book id -> catalog version of its last change. Books never changed in this process (or evicted) report evictedFloor,
+    // which is at least as new as any evicted entry, so eviction can only cost a 200, never a stale 304.
+    private final Cache<Long, Long> bookVersions;
+    private final AtomicLong evictedFloor = new AtomicLong();
+
+    public CatalogVersions(
+        @Value("${books.http-cache.enabled:true}") boolean enabled,
+        @Value("${books.http-cache.tracked-books:100000}") long trackedBooks) {
+        this.enabled = enabled;
+        this.bookVersions = Caffeine.newBuilder()
+            .maximumSize(trackedBooks)
+            .evictionListener((Long bookId, Long version, RemovalCause cause) -> evictedFloor.accumulateAndGet(version, Math::max))
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Any book list: changes whenever any book does
+    public String catalogETag() {
+        return "\"" + epoch + "-" + catalogVersion.get() + "\"";
+    }
+
+    // One book: only changes when that book does
+    public String bookETag(Long bookId) {
+        Long version = bookVersions.getIfPresent(bookId);
+        return "\"" + epoch + "-" + bookId + "-" + (version != null ? version : evictedFloor.get()) + "\"";
+    }
+
+    // Bumped after commit: a reader that takes the ETag before its query can then only pair an old ETag with new data
+    // (refetched on the next poll), never a new ETag with data that could still roll back
+    public void bookChanged(Long bookId) {
+        AfterCommit.run(() -> bookVersions.put(bookId, catalogVersion.incrementAndGet()));
+    }
+
+    // New books only: no book ETag can refer to them yet, so only the catalog version moves
+    public void booksAdded() {
+        AfterCommit.run(catalogVersion::incrementAndGet);
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored; "*" falls through to a normal response
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
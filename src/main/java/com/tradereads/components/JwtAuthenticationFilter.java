@@ -2,6 +2,7 @@ package com.tradereads.components;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -9,7 +10,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.tradereads.service.JwtService;
+import com.tradereads.service.JwtService.VerifiedClaims;
 
 import org.springframework.lang.NonNull;
 import jakarta.servlet.FilterChain;
@@ -19,10 +20,10 @@ import jakarta.servlet.http.HttpServletResponse;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
-        this.jwtService = jwtService;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -33,7 +34,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -42,21 +42,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.validateToken(jwt, username)) {
-                    String role = jwtService.extractRole(jwt);
-                    Long userId = jwtService.extractUserId(jwt);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Single signature check per request (or none on a cache hit); subject, role, userId and expiry all come from one parse
+                Optional<VerifiedClaims> verifiedClaims = verifiedTokenCache.verify(jwt);
+                if (verifiedClaims.isPresent()) {
+                    VerifiedClaims claims = verifiedClaims.get();
 
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username,
+                        claims.subject(),
                         null,
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.role()))
                     );
 
-                    authToken.setDetails(new CustomAuthenticationDetails(userId, role));
+                    authToken.setDetails(new CustomAuthenticationDetails(claims.userId(), claims.role()));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
@@ -0,0 +1,208 @@
+package com.tradereads.components;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tradereads.model.UserTradeCounters;
+import com.tradereads.service.TradeRequestEvent;
+import com.tradereads.service.TradeRequestService;
+
+import jakarta.annotation.PreDestroy;
+
+// Pushes trade request changes and pending counts to connected clients over Server-Sent Events.
+// Each open stream is an async servlet request plus one Connection below; no thread is held while it is idle.
+// Every connection has its own bounded outbox, written by at most one virtual thread at a time, so a client that stops
+// reading only ever blocks its own writer. Once its outbox is full the stream is closed; clients resync on reconnect.
+@Component
+public class TradeEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(TradeEventBroadcaster.class);
+
+    private final TradeRequestService tradeRequestService;
+    private final long timeoutMillis;
+    private final int maxConnectionsPerUser;
+    private final int outboxCapacity;
+    // A writer per draining connection plus one per pending counts refresh, so the task count is bounded by the streams
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("trade-events-", 0).factory());
+
+    private final ConcurrentHashMap<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    // Users with a counts read queued, so a burst of transitions costs one DB read per user rather than one per event
+    private final Set<Long> countsPending = ConcurrentHashMap.newKeySet();
+    private final LongAdder overflowedConnections = new LongAdder();
+
+    private final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> outbox;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(outboxCapacity);
+        }
+    }
+
+    public TradeEventBroadcaster(
+        TradeRequestService tradeRequestService,
+        @Value("${trades.events.timeout-ms:1800000}") long timeoutMillis,
+        @Value("${trades.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+        @Value("${trades.events.outbox-capacity:100}") int outboxCapacity) {
+        this.tradeRequestService = tradeRequestService;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.outboxCapacity = Math.max(outboxCapacity, 1);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        List<Connection> evicted = new ArrayList<>();
+        connectionsByUser.compute(userId, (id, connections) -> {
+            List<Connection> list = connections != null ? connections : new CopyOnWriteArrayList<>();
+            list.add(connection);
+            // Oldest streams go first when one account opens too many (e.g. leaked tabs)
+            while (list.size() > maxConnectionsPerUser) {
+                evicted.add(list.remove(0));
+            }
+            return list;
+        });
+        evicted.forEach(old -> old.emitter.complete());
+
+        // Current counts straight away, so clients never need the polling endpoint
+        refreshCounts(userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeRequestEvent(TradeRequestEvent event) {
+        notifyUser(event.requesterId(), event);
+        notifyUser(event.ownerId(), event);
+    }
+
+    @Scheduled(fixedDelayString = "${trades.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        // A comment line keeps proxies from closing idle streams and flushes out dead connections
+        connectionsByUser.values().forEach(connections -> connections.forEach(
+            connection -> enqueue(connection, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int getConnectionCount() {
+        return connectionsByUser.values().stream().mapToInt(List::size).sum();
+    }
+
+    public long getOverflowedConnectionCount() {
+        return overflowedConnections.sum();
+    }
+
+    private void notifyUser(Long userId, TradeRequestEvent event) {
+        List<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null || connections.isEmpty()) {
+            return;
+        }
+        for (Connection connection : connections) {
+            enqueue(connection, SseEmitter.event().name("trade").data(event, MediaType.APPLICATION_JSON));
+        }
+        refreshCounts(userId);
+    }
+
+    private void refreshCounts(Long userId) {
+        if (!connectionsByUser.containsKey(userId) || !countsPending.add(userId)) {
+            return;
+        }
+        writers.execute(() -> {
+            // Cleared before the read, so a transition committed meanwhile schedules another one
+            countsPending.remove(userId);
+            try {
+                UserTradeCounters pending = tradeRequestService.getPendingRequestCounts(userId);
+                Map<String, Long> counts = Map.of(
+                    "pendingIncoming", pending.getPendingIncoming(),
+                    "pendingOutgoing", pending.getPendingOutgoing()
+                );
+                for (Connection connection : connectionsByUser.getOrDefault(userId, List.of())) {
+                    enqueue(connection, SseEmitter.event().name("counts").data(counts, MediaType.APPLICATION_JSON));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Reading trade counts for the event stream failed", e);
+            }
+        });
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.outbox.offer(event)) {
+            // The client has stopped reading: close its stream rather than queue for it without limit
+            overflowedConnections.increment();
+            close(connection, null);
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            writers.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.outbox.poll()) != null) {
+                try {
+                    connection.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks may not fire until the container notices
+                    close(connection, e);
+                    return;
+                }
+            }
+            connection.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared would otherwise wait for the next one
+        } while (!connection.outbox.isEmpty() && connection.draining.compareAndSet(false, true));
+    }
+
+    private void close(Connection connection, Throwable error) {
+        unregister(connection);
+        connection.outbox.clear();
+        if (error != null) {
+            connection.emitter.completeWithError(error);
+        } else {
+            connection.emitter.complete();
+        }
+    }
+
+    private void unregister(Connection connection) {
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> connection.emitter.complete()));
+    }
+}
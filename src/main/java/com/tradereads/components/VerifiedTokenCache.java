@@ -0,0 +1,137 @@
+package com.tradereads.components;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tradereads.service.JwtService;
+import com.tradereads.service.JwtService.VerifiedClaims;
+
+// Skips repeated HMAC checks for access tokens we have already verified.
+// Entries are keyed by a SHA-256 digest of the token (never the raw token) and live until the token's own exp.
+// Also the one place access tokens are revoked early: after logout-all, every token of that user issued up to then is
+// rejected, cached or not. The cutoff is held in memory for one access token lifetime, so it only covers this instance.
+@Component
+public class VerifiedTokenCache {
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<String, VerifiedClaims> cache;
+    // Bumped on every evictAll, so a verification still running against the old key cannot re-add its result
+    private final AtomicLong generation = new AtomicLong();
+    // userId -> tokens issued at or before this second are revoked; kept until every such token has expired anyway
+    private final Cache<Long, Instant> revokedUntil;
+
+    public VerifiedTokenCache(
+        JwtService jwtService,
+        @Value("${jwt.verified-cache.enabled:true}") boolean enabled,
+        @Value("${jwt.verified-cache.max-size:10000}") long maxSize,
+        @Value("${jwt.access-token-expiration:600000}") long accessTokenExpiration) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new ExpireAtTokenExpiry())
+            .recordStats()
+            .build();
+        this.revokedUntil = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+            .build();
+        jwtService.onSigningKeyRotated(this::evictAll);
+    }
+
+    public Optional<VerifiedClaims> verify(String token) {
+        return verifySignature(token).filter(claims -> !isRevoked(claims));
+    }
+
+    private Optional<VerifiedClaims> verifySignature(String token) {
+        if (!enabled) {
+            return jwtService.verifyToken(token);
+        }
+
+        String key = digest(token);
+        VerifiedClaims cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Only successful verifications are cached so garbage tokens cannot fill the cache
+        long verifiedUnder = generation.get();
+        Optional<VerifiedClaims> verified = jwtService.verifyToken(token);
+        verified.ifPresent(claims -> {
+            cache.put(key, claims);
+            if (generation.get() != verifiedUnder) {
+                cache.invalidate(key);
+            }
+        });
+        return verified;
+    }
+
+    // iat has whole-second precision, so a token issued later in the same second as the logout is rejected too
+    public void revokeUserTokens(Long userId) {
+        if (userId == null) return;
+        revokedUntil.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        cache.asMap().values().removeIf(claims -> userId.equals(claims.userId()));
+    }
+
+    private boolean isRevoked(VerifiedClaims claims) {
+        if (claims.userId() == null) {
+            return false;
+        }
+        Instant cutoff = revokedUntil.getIfPresent(claims.userId());
+        return cutoff != null && (claims.issuedAt() == null || !claims.issuedAt().isAfter(cutoff));
+    }
+
+    // Runs on JwtService.rotateSigningKey, so tokens signed with the old key are verified again (and rejected)
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class ExpireAtTokenExpiry implements Expiry<String, VerifiedClaims> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+            long remainingMillis = claims.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return Math.max(0, remainingMillis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
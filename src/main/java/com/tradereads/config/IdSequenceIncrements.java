@@ -0,0 +1,62 @@
+package com.tradereads.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+
+// Repeatable migration that sets every id sequence's increment to persistence.id-allocation-size. Its checksum is the
+// size, so Flyway runs it again whenever the setting changes; Hibernate then adopts the sequences' increment at startup
+// (increment_size_mismatch_strategy=fix). Each sequence restarts one block past a value it just handed out, so no id
+// allocated under the old size can come round again. Registered as a bean (see PersistenceConfig), not found by scanning.
+public class IdSequenceIncrements implements JavaMigration {
+    static final List<String> SEQUENCES = List.of("users_seq", "books_seq", "trade_requests_seq", "refresh_token_seq", "trade_cycles_seq");
+
+    private final int allocationSize;
+
+    public IdSequenceIncrements(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Id sequence increments";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return allocationSize;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        for (String sequence : SEQUENCES) {
+            long last;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("select nextval('" + sequence + "')")) {
+                rows.next();
+                last = rows.getLong(1);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("alter sequence " + sequence + " restart with " + (last + allocationSize) + " increment by " + allocationSize);
+            }
+        }
+    }
+}
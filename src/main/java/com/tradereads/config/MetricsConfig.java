@@ -0,0 +1,81 @@
+package com.tradereads.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tradereads.components.TradeEventBroadcaster;
+import com.tradereads.components.VerifiedTokenCache;
+import com.tradereads.service.BookSearchService;
+import com.tradereads.service.PasswordHashingService;
+import com.tradereads.service.PendingTradeCounterReconciler;
+import com.tradereads.service.RefreshTokenReaper;
+import com.tradereads.service.TradeCycleMatcher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Publishes the counters the components already keep, read at scrape time. HTTP endpoints (http.server.requests),
+// repositories (spring.data.repository.invocations), the Hikari pool (hikaricp.*) and Hibernate (hibernate.*) are
+// instrumented by Spring Boot; trade transitions and JWT checks record their own meters.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags() {
+        return registry -> registry.config().commonTags("application", "tradereads");
+    }
+
+    @Bean
+    public MeterBinder authMetrics(VerifiedTokenCache verifiedTokenCache, PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder("jwt.verified.cache.size", verifiedTokenCache, VerifiedTokenCache::getSize).register(registry);
+            FunctionCounter.builder("jwt.verified.cache.requests", verifiedTokenCache, c -> c.getStats().hitCount())
+                .tag("result", "hit").register(registry);
+            FunctionCounter.builder("jwt.verified.cache.requests", verifiedTokenCache, c -> c.getStats().missCount())
+                .tag("result", "miss").register(registry);
+
+            // Queue depth near security.password-hashing.queue-capacity means logins are about to be refused with 503
+            Gauge.builder("password.hashing.queue", passwordHashingService, PasswordHashingService::getQueueDepth).register(registry);
+            Gauge.builder("password.hashing.active", passwordHashingService, PasswordHashingService::getActiveCount).register(registry);
+            FunctionCounter.builder("password.hashing.operations", passwordHashingService, PasswordHashingService::getHashCount).register(registry);
+            FunctionCounter.builder("password.hashing.rejected", passwordHashingService, PasswordHashingService::getRejectedCount).register(registry);
+            TimeGauge.builder("password.hashing.latency.average", passwordHashingService, TimeUnit.MILLISECONDS,
+                PasswordHashingService::getAverageHashLatencyMillis).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tradeMetrics(TradeEventBroadcaster tradeEventBroadcaster, TradeCycleMatcher tradeCycleMatcher,
+                                    PendingTradeCounterReconciler reconciler) {
+        return registry -> {
+            Gauge.builder("trades.events.connections", tradeEventBroadcaster, TradeEventBroadcaster::getConnectionCount).register(registry);
+            // Streams closed because their client stopped reading and the outbox filled up
+            FunctionCounter.builder("trades.events.overflowed", tradeEventBroadcaster, TradeEventBroadcaster::getOverflowedConnectionCount).register(registry);
+            Gauge.builder("trades.cycles.proposed", tradeCycleMatcher, TradeCycleMatcher::getProposedCount).register(registry);
+            // Events waiting for the matcher; drops mean the queue filled up and the wish graph was reloaded
+            Gauge.builder("trades.cycles.queue", tradeCycleMatcher, TradeCycleMatcher::getQueueDepth).register(registry);
+            FunctionCounter.builder("trades.cycles.dropped", tradeCycleMatcher, TradeCycleMatcher::getDroppedCount).register(registry);
+
+            // Rows the reconciler had to fix: anything above zero means a code path updated trade_requests without the counters
+            FunctionCounter.builder("trades.counters.repaired", reconciler, PendingTradeCounterReconciler::getTotalRowsRepaired).register(registry);
+            TimeGauge.builder("trades.counters.reconcile.last.duration", reconciler, TimeUnit.MILLISECONDS,
+                PendingTradeCounterReconciler::getLastRunDurationMillis).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder maintenanceMetrics(RefreshTokenReaper refreshTokenReaper, BookSearchService bookSearchService) {
+        return registry -> {
+            FunctionCounter.builder("refresh.tokens.reaped", refreshTokenReaper, RefreshTokenReaper::getTotalRowsReaped).register(registry);
+            TimeGauge.builder("refresh.tokens.reaper.last.duration", refreshTokenReaper, TimeUnit.MILLISECONDS,
+                RefreshTokenReaper::getLastRunDurationMillis).register(registry);
+            Gauge.builder("books.search.indexed", bookSearchService, BookSearchService::getIndexedCount).register(registry);
+        };
+    }
+}
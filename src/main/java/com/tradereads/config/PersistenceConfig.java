@@ -0,0 +1,35 @@
+package com.tradereads.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Every entity id comes from a <table>_seq sequence, so Hibernate can assign ids before inserting and send inserts in
+// JDBC batches. The allocation size lives in the database (each sequence's increment), kept in line with the
+// persistence.id-allocation-size setting by the IdSequenceIncrements migration.
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public IdSequenceIncrements idSequenceIncrements(@Value("${persistence.id-allocation-size:50}") int allocationSize) {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("persistence.id-allocation-size must be at least 1");
+        }
+        return new IdSequenceIncrements(allocationSize);
+    }
+
+    // Defaults for anything spring.jpa.properties.hibernate.* does not set itself
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(@Value("${persistence.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            // Group the statements of a flush by table, otherwise mixed parent/child inserts keep breaking the batch
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            // Take each generator's block size from its sequence rather than failing on a mismatch with @SequenceGenerator
+            properties.putIfAbsent(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "fix");
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.tradereads.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,9 +14,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.web.context.support.WebApplicationContextUtils;
 
 import com.tradereads.components.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -29,8 +38,15 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async/error re-dispatches of an already authorized request (e.g. a closing SSE stream)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 // Public endpoints
                 .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                // Health checks anywhere; the Prometheus scrape only on the management listener (management.server.port), so a
+                // deployment without one does not publish metrics on the public port
+                .requestMatchers(EndpointRequest.to("health")).permitAll()
+                .requestMatchers(new AndRequestMatcher(EndpointRequest.to("prometheus"), SecurityConfig::onManagementServer)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).denyAll()
                 // Public read-only book endpoints
                 .requestMatchers(HttpMethod.GET, "/api/books", "/api/books/*", "/api/books/available").permitAll()
                 // User-specific (protected) endpoints
@@ -43,8 +59,14 @@ public class SecurityConfig {
             return http.build();
     }
 
+    // The main filter chain also guards the management server's child context when it has a port of its own
+    private static boolean onManagementServer(HttpServletRequest request) {
+        ApplicationContext context = WebApplicationContextUtils.getWebApplicationContext(request.getServletContext());
+        return WebServerApplicationContext.hasServerNamespace(context, "management");
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
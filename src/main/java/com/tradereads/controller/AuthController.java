@@ -1,5 +1,6 @@
 package com.tradereads.controller;
 
+import com.tradereads.components.VerifiedTokenCache;
 import com.tradereads.dto.JwtResponseDTO;
 import com.tradereads.dto.LoginRequestDTO;
 import com.tradereads.dto.LogoutRequestDTO;
@@ -10,6 +11,7 @@ import com.tradereads.model.User;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -32,14 +34,16 @@ public class AuthController {
     private final UserService userService;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Value("${jwt.access-token-expiration:600000}") // 10 minutes in milliseconds
     private long accessTokenExpiration;
 
-    public AuthController(UserService userService, JwtService jwtService, RefreshTokenService refreshTokenService) {
+    public AuthController(UserService userService, JwtService jwtService, RefreshTokenService refreshTokenService, VerifiedTokenCache verifiedTokenCache) {
         this.userService = userService;
         this.jwtService = jwtService;
         this.refreshTokenService = refreshTokenService;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @GetMapping("/users")
@@ -62,6 +66,8 @@ public class AuthController {
             return ResponseEntity.ok(Map.of("message", "User registered successfully"));
         } catch(IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch(RejectedExecutionException e) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(Map.of("error", "Server busy, please try again"));
         } catch(Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
         }
@@ -99,6 +105,8 @@ public class AuthController {
             }
 
             return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
+        } catch(RejectedExecutionException e) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(Map.of("error", "Server busy, please try again"));
         } catch(Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
         }
@@ -109,13 +117,10 @@ public class AuthController {
         try {
             String refreshToken = request.getRefreshToken();
 
-            if (!refreshTokenService.validateRefreshToken(refreshToken)) {
-                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired refresh token"));
-            }
-
+            // One lookup: unknown and expired tokens both come back empty
             Optional<Long> userId = refreshTokenService.getUserIdFromRefreshToken(refreshToken);
             if (userId.isEmpty()) {
-                return ResponseEntity.status(401).body(Map.of("error", "Invalid refresh token"));
+                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired refresh token"));
             }
 
             Optional<User> user = userService.getUserById(userId.get());
@@ -173,6 +178,8 @@ public class AuthController {
             if (token != null) {
                 Long userId = jwtService.extractUserId(token);
                 refreshTokenService.revokeAllUserTokens(userId);
+                // Access tokens already handed out stop working too, not only at their exp
+                verifiedTokenCache.revokeUserTokens(userId);
             }
 
             return ResponseEntity.ok(Map.of("message", "Logged out from all device"));
@@ -1,18 +1,29 @@
 package com.tradereads.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.tradereads.components.AuthUtil;
+import com.tradereads.components.CatalogVersions;
 import com.tradereads.dto.BookCreationRequestDTO;
+import com.tradereads.dto.BookListingDTO;
 import com.tradereads.model.Book;
 import com.tradereads.model.User;
 import com.tradereads.model.Book.BookStatus;
 import com.tradereads.model.Book.ListingType;
+import com.tradereads.service.BookImportService;
 import com.tradereads.service.BookService;
 import com.tradereads.service.UserService;
 
@@ -22,13 +33,26 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/books")
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
     private final UserService userService;
     private final AuthUtil authUtil;
+    private final CatalogVersions catalogVersions;
+    private final CacheControl publicCacheControl;
 
-    public BookController(BookService bookService, UserService userService, AuthUtil authUtil) {
+    public BookController(
+        BookService bookService,
+        BookImportService bookImportService,
+        UserService userService,
+        AuthUtil authUtil,
+        CatalogVersions catalogVersions,
+        @Value("${books.http-cache.shared-max-age-seconds:5}") long sharedMaxAgeSeconds) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
         this.userService = userService;
         this.authUtil = authUtil;
+        this.catalogVersions = catalogVersions;
+        // Browsers revalidate every time (a cheap 304); a CDN may serve its copy for a few seconds before doing the same
+        this.publicCacheControl = CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds)).cachePublic();
     }
 
     // ========= USER-OWNED BOOKS (PROTECTED ENDPOINTS) =========
@@ -111,6 +135,25 @@ public class BookController {
         }
     }
 
+    // Bulk import, streamed: text/csv with a header row of the BookCreationRequestDTO field names, or application/x-ndjson
+    // with one such object per line. Answers with counts and the rows that were skipped (duplicate ISBN) or failed.
+    @PostMapping(path = "/my-books/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importMyBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        try {
+            Long currentUserId = authUtil.getCurrentUserId();
+            BookImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? BookImportService.Format.NDJSON
+                : BookImportService.Format.CSV;
+            return ResponseEntity.ok(bookImportService.importBooks(currentUserId, body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read the request body"));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
     @PutMapping("/my-books/{id}")
     public ResponseEntity<?> updateMyBook(@PathVariable Long id, @Valid @RequestBody BookCreationRequestDTO request) {
         try {
@@ -158,10 +201,17 @@ public class BookController {
     public ResponseEntity<?> getAllBooks(
         @RequestParam(required = false) String genre,
         @RequestParam(required = false) String status,
-        @RequestParam(required = false) String listingType
+        @RequestParam(required = false) String listingType,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
     ) {
         try {
-            List<Book> books;
+            // ETag before the query, see CatalogVersions.bookChanged
+            String etag = catalogVersions.catalogETag();
+            if (isNotModified(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+
+            List<BookListingDTO> books;
 
             ListingType type = null;
             BookStatus bookStatus = null;
@@ -182,43 +232,114 @@ public class BookController {
                 }
             }
 
-            if (bookStatus != null && type != null) {
-                books = bookService.getBooksByStatusAndListingType(bookStatus, type);
-            } else if (type != null) {
-                books = bookService.getBooksByListingType(type);
-            } else if (bookStatus != null) {
-                books = bookService.getBooksByStatus(bookStatus);
-            } else if (genre != null) {
-                books = bookService.getBooksByGenre(genre);
+            // Genre only applies when neither status nor listing type is given (unchanged filter precedence)
+            if (bookStatus != null || type != null) {
+                books = bookService.getBookListings(null, bookStatus, type, null);
             } else {
-                books = bookService.getAllBooks();
+                books = bookService.getBookListings(genre, null, null, null);
             }
 
-            return ResponseEntity.ok(books);
+            return cacheable(etag).body(books);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(List.of());
         }
     }
 
+    // Cursor-paginated catalog in descending id order (not strictly by listing time); pass the returned nextCursor back as
+    // ?cursor= to get the following page
+    @GetMapping("/catalog")
+    public ResponseEntity<?> getCatalog(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String genre,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String listingType
+    ) {
+        try {
+            ListingType type = null;
+            BookStatus bookStatus = null;
+
+            if (listingType != null && !listingType.isBlank()) {
+                try {
+                    type = ListingType.valueOf(listingType.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Invalid listing type"));
+                }
+            }
+
+            if (status != null && !status.isBlank()) {
+                try {
+                    bookStatus = BookStatus.valueOf(status.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Invalid status"));
+                }
+            }
+
+            String genreFilter = genre == null || genre.isBlank() ? null : genre;
+            return ResponseEntity.ok(bookService.getCatalogPage(cursor, limit, genreFilter, bookStatus, type));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    // Ranked full-text search over title, author, genre and description; each word also matches as a prefix
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBooks(
+        @RequestParam String q,
+        @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            if (q.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Search query is required"));
+            }
+            return ResponseEntity.ok(bookService.searchBooks(q, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = catalogVersions.bookETag(id);
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         return bookService.getBookById(id)
-                .map(ResponseEntity::ok)
+                .map(book -> cacheable(etag).body(book))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Book>> getAvailableBooks(@RequestParam(required = false) Long excludeUserId) {
+    public ResponseEntity<List<BookListingDTO>> getAvailableBooks(
+        @RequestParam(required = false) Long excludeUserId,
+        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+    ) {
         try {
-            List<Book> books;
-            if (excludeUserId != null) {
-                books = bookService.getAvailableBooksExcludingUser(excludeUserId, BookStatus.AVAILABLE);
-            } else {    
-                books = bookService.getBooksByStatus(BookStatus.AVAILABLE);
+            String etag = catalogVersions.catalogETag();
+            if (isNotModified(ifNoneMatch, etag)) {
+                return notModified(etag);
             }
-            return ResponseEntity.ok(books);
+            List<BookListingDTO> books = bookService.getBookListings(null, BookStatus.AVAILABLE, null, excludeUserId);
+            return cacheable(etag).body(books);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(List.of());
         }
     }
+
+    private boolean isNotModified(String ifNoneMatch, String etag) {
+        return catalogVersions.isEnabled() && CatalogVersions.matches(ifNoneMatch, etag);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(publicCacheControl).build();
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(String etag) {
+        if (!catalogVersions.isEnabled()) {
+            return ResponseEntity.ok();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(publicCacheControl);
+    }
 }
\ No newline at end of file
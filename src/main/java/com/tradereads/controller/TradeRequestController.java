@@ -3,6 +3,7 @@ package com.tradereads.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +14,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.tradereads.components.AuthUtil;
+import com.tradereads.components.TradeEventBroadcaster;
 import com.tradereads.dto.TradeRequestDTO;
+import com.tradereads.model.TradeCycle;
 import com.tradereads.model.TradeRequest;
 import com.tradereads.model.TradeRequest.TradeStatus;
+import com.tradereads.model.UserTradeCounters;
 import com.tradereads.service.BookService;
 import com.tradereads.service.TradeRequestService;
 
@@ -30,11 +35,13 @@ public class TradeRequestController {
     private final BookService bookService;
     private final TradeRequestService tradeRequestService;
     private final AuthUtil authUtil;
+    private final TradeEventBroadcaster tradeEventBroadcaster;
 
-    public TradeRequestController(TradeRequestService tradeRequestService, AuthUtil authUtil, BookService bookService) {
+    public TradeRequestController(TradeRequestService tradeRequestService, AuthUtil authUtil, BookService bookService, TradeEventBroadcaster tradeEventBroadcaster) {
         this.tradeRequestService = tradeRequestService;
         this.authUtil = authUtil;
         this.bookService = bookService;
+        this.tradeEventBroadcaster = tradeEventBroadcaster;
     }
 
     @PostMapping
@@ -185,25 +192,53 @@ public class TradeRequestController {
         }
     }
 
-    // Get count of pending trade requests (will probably enhance and use for future - specially notifications)
-    // Will probably go down the websocket route soon!!!
+    // Get count of pending trade requests
+    // Prefer /events: it pushes the same counts whenever they change instead of being polled
     @GetMapping("/counts")
     public ResponseEntity<?> getTradeRequestCounts() {
         try {
             Long currentUserId = authUtil.getCurrentUserId();
             
-            Long pendingIncomingRequest = tradeRequestService.getPendingIncomingRequestsCount(currentUserId);
-            Long pendingOutgoingRequest = tradeRequestService.getPendingOutgoingRequestsCount(currentUserId);
+            UserTradeCounters counts = tradeRequestService.getPendingRequestCounts(currentUserId);
 
             return ResponseEntity.ok(Map.of(
-                "pendingIncoming", pendingIncomingRequest,
-                "pendingOutgoing", pendingOutgoingRequest
+                "pendingIncoming", counts.getPendingIncoming(),
+                "pendingOutgoing", counts.getPendingOutgoing()
             ));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
         }
     }
 
+    // Server-Sent Events stream of this user's trade changes ("trade") and pending counts ("counts").
+    // Counts are sent once on connect, then again after every change that involves the user.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamTradeEvents() {
+        try {
+            Long currentUserId = authUtil.getCurrentUserId();
+            SseEmitter emitter = tradeEventBroadcaster.subscribe(currentUserId);
+
+            return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    // Proposed multi-party exchanges (3 or 4 users, each giving one book and receiving the one they asked for)
+    @GetMapping("/cycles")
+    public ResponseEntity<?> getProposedTradeCycles() {
+        try {
+            Long currentUserId = authUtil.getCurrentUserId();
+            List<TradeCycle> cycles = tradeRequestService.getProposedTradeCycles(currentUserId);
+            return ResponseEntity.ok(cycles);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
     // Get all trade requests for a specific book (useful for book owners to see all requests)
     // Will go down the websocket route? Not sure will see in the future!!!
     @GetMapping("/book/{bookId}")
@@ -0,0 +1,79 @@
+package com.tradereads.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookImportReportDTO {
+    private int rows;
+    private int imported;
+    private int duplicates;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>(); // duplicates and failures, in row order, up to the configured limit
+    private boolean errorsTruncated;
+
+    public static class RowError {
+        private final long row; // 1-based data row (the CSV header is not counted)
+        private final String isbn;
+        private final String error;
+
+        public RowError(long row, String isbn, String error) {
+            this.row = row;
+            this.isbn = isbn;
+            this.error = error;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tradereads.dto;
+
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+
+// Read-only view of a book for public list endpoints, built directly by a JPQL constructor expression
+// (one joined query, no managed entities). Keeps the same JSON shape as Book, with owner reduced to id/username.
+public class BookListingDTO {
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final String isbn;
+    private final String genre;
+    private final String condition;
+    private final String description;
+    private final BookStatus status;
+    private final ListingType listingType;
+    private final OwnerSummary owner;
+
+    public BookListingDTO(Long id, String title, String author, String isbn, String genre, String condition, String description, BookStatus status, ListingType listingType, Long ownerId, String ownerUsername) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.genre = genre;
+        this.condition = condition;
+        this.description = description;
+        this.status = status;
+        this.listingType = listingType;
+        this.owner = new OwnerSummary(ownerId, ownerUsername);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BookStatus getStatus() {
+        return status;
+    }
+
+    public ListingType getListingType() {
+        return listingType;
+    }
+
+    public OwnerSummary getOwner() {
+        return owner;
+    }
+
+    public record OwnerSummary(Long id, String username) {}
+}
@@ -0,0 +1,36 @@
+package com.tradereads.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor; // null when this is the last page
+    private int limit;
+
+    public CursorPageDTO(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
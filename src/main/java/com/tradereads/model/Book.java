@@ -9,16 +9,29 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(
     name = "books",
     uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"isbn", "user_id"}) // A User cannot have two books with the same ISBN
+        @UniqueConstraint(name = "uk_books_isbn_user", columnNames = {"isbn", "user_id"}) // A User cannot have two books with the same ISBN
+    },
+    // Mirrors db/migration/V2__finder_indexes.sql and V10__catalog_indexes.sql, one per BookRepository finder shape
+    indexes = {
+        @Index(name = "idx_books_owner_status_listing", columnList = "user_id, status, listing_type"),
+        @Index(name = "idx_books_owner_listing", columnList = "user_id, listing_type"),
+        @Index(name = "idx_books_owner_genre", columnList = "user_id, genre"),
+        @Index(name = "idx_books_status_listing", columnList = "status, listing_type"),
+        @Index(name = "idx_books_genre_id", columnList = "genre, id"),
+        @Index(name = "idx_books_status_id", columnList = "status, id"),
+        @Index(name = "idx_books_listing_type_id", columnList = "listing_type, id")
     }
 )
 public class Book {
@@ -38,8 +51,11 @@ public class Book {
         // BUY, - SOON TO ADD FEATURE
     }
 
+    // Ids come from books_seq in blocks, so inserts can be batched (IDENTITY makes Hibernate insert one row at a time).
+    // The block size is the sequence's increment, persistence.id-allocation-size (see PersistenceConfig)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq")
     private Long id;
     private String title;
     private String author;
@@ -56,11 +72,15 @@ public class Book {
     @Column(nullable = false)
     private ListingType listingType;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "user_role", "email", "phoneNumber"})
     private User owner;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Book() {}
 
     public Book(String title, String author, String isbn, String genre, String condition, String description, BookStatus status, ListingType listingType, User owner) {
@@ -144,4 +164,11 @@ public class Book {
     public void setOwner(User owner) {
         this.owner = owner;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -2,22 +2,35 @@ package com.tradereads.model;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "refresh_token")
+@Table(
+    name = "refresh_token",
+    indexes = {
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_token_user_expires", columnList = "user_id, expires_at")
+    }
+)
 public class RefreshToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_seq")
     private Long id;
 
-    @Column(unique = true, nullable = false)
-    private String token;
+    // SHA-256 of the token handed to the client; the token itself is never stored
+    @JsonIgnore
+    @Column(name = "token_hash", unique = true, nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private Long userId;
@@ -33,8 +46,8 @@ public class RefreshToken {
 
     public RefreshToken() {}
 
-    public RefreshToken(String token, Long userId, Instant expiresAt, Instant createdAt, String deviceInfo, String ipAddress) {
-        this.token = token;
+    public RefreshToken(byte[] tokenHash, Long userId, Instant expiresAt, Instant createdAt, String deviceInfo, String ipAddress) {
+        this.tokenHash = tokenHash;
         this.userId = userId;
         this.expiresAt = expiresAt;
         this.createdAt = createdAt;
@@ -49,11 +62,11 @@ public class RefreshToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public Long getUserId() {
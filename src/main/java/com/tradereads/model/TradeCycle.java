@@ -0,0 +1,93 @@
+package com.tradereads.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// A proposed multi-party exchange: each trade request's requester receives the requested book from its owner,
+// and the owner is the requester of the next request in the list, wrapping around to the first.
+@Entity
+@Table(name = "trade_cycles")
+public class TradeCycle {
+
+    public enum CycleStatus {
+        PROPOSED,
+        EXPIRED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_cycles_seq")
+    @SequenceGenerator(name = "trade_cycles_seq", sequenceName = "trade_cycles_seq")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CycleStatus status = CycleStatus.PROPOSED;
+
+    // Sorted member request ids, so the same cycle is never proposed twice
+    @JsonIgnore
+    @Column(nullable = false, unique = true, length = 100)
+    private String signature;
+
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "trade_cycle_requests",
+        joinColumns = @JoinColumn(name = "cycle_id"),
+        inverseJoinColumns = @JoinColumn(name = "trade_request_id")
+    )
+    @OrderColumn(name = "member_order")
+    private List<TradeRequest> tradeRequests = new ArrayList<>();
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public TradeCycle() {}
+
+    public TradeCycle(String signature, List<TradeRequest> tradeRequests) {
+        this.signature = signature;
+        this.tradeRequests = new ArrayList<>(tradeRequests);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public CycleStatus getStatus() {
+        return status;
+    }
+    public void setStatus(CycleStatus status) {
+        this.status = status;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public List<TradeRequest> getTradeRequests() {
+        return tradeRequests;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -13,15 +13,44 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "trade_requests")
+@Table(
+    name = "trade_requests",
+    // Mirrors db/migration/V2__finder_indexes.sql, one per TradeRequestRepository finder shape
+    indexes = {
+        @Index(name = "idx_trade_requests_requester_created", columnList = "requester_id, created_at"),
+        @Index(name = "idx_trade_requests_requester_status_created", columnList = "requester_id, status, created_at"),
+        @Index(name = "idx_trade_requests_owner_created", columnList = "owner_id, created_at"),
+        @Index(name = "idx_trade_requests_owner_status_created", columnList = "owner_id, status, created_at"),
+        @Index(name = "idx_trade_requests_requested_book_created", columnList = "requested_book_id, created_at"),
+        @Index(name = "idx_trade_requests_offered_book", columnList = "offered_book_id")
+    }
+)
+// Everything a trade request response serializes, fetched with the request itself (TradeRequestRepository finders)
+@NamedEntityGraph(
+    name = TradeRequest.WITH_PARTIES,
+    attributeNodes = {
+        @NamedAttributeNode("requester"),
+        @NamedAttributeNode("owner"),
+        @NamedAttributeNode(value = "requestedBook", subgraph = "book"),
+        @NamedAttributeNode(value = "offeredBook", subgraph = "book")
+    },
+    subgraphs = @NamedSubgraph(name = "book", attributeNodes = @NamedAttributeNode("owner"))
+)
 public class TradeRequest {
+    public static final String WITH_PARTIES = "TradeRequest.withParties";
 
     public enum TradeStatus {
         PENDING,
@@ -32,20 +61,21 @@ public class TradeRequest {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_requests_seq")
+    @SequenceGenerator(name = "trade_requests_seq", sequenceName = "trade_requests_seq")
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "requester_id", nullable = false)
     @NotNull
     private User requester;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "owner_id", nullable = false)
     @NotNull
     private User owner;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "requested_book_id", nullable = false)
     @NotNull
     private Book requestedBook;
@@ -70,6 +100,10 @@ public class TradeRequest {
     @Column 
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public TradeRequest() {}
 
     public TradeRequest(User requester, User owner, Book requestedBook, Book offeredBook, String message) {
@@ -143,4 +177,11 @@ public class TradeRequest {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,41 @@
+package com.tradereads.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Pending trade request counts for one user. Read-only from JPA's point of view:
+// rows are only ever changed by the atomic increments in UserTradeCountersRepository.
+@Entity
+@Table(name = "user_trade_counters")
+public class UserTradeCounters {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "pending_incoming", nullable = false)
+    private long pendingIncoming;
+
+    @Column(name = "pending_outgoing", nullable = false)
+    private long pendingOutgoing;
+
+    public UserTradeCounters() {}
+
+    // Zero counts for a user that has no row yet
+    public UserTradeCounters(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getPendingIncoming() {
+        return pendingIncoming;
+    }
+
+    public long getPendingOutgoing() {
+        return pendingOutgoing;
+    }
+}
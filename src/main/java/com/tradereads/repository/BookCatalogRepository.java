@@ -0,0 +1,19 @@
+package com.tradereads.repository;
+
+import java.util.List;
+
+import com.tradereads.dto.BookListingDTO;
+import com.tradereads.model.Book;
+
+// Listing queries whose WHERE clause depends on which filters are set; null filters are left out of the query
+public interface BookCatalogRepository {
+
+    // Public list endpoints read projections (book columns + owner id/username) in one joined query
+    List<BookListingDTO> findListings(String genre, Book.BookStatus status, Book.ListingType listingType, Long excludeOwnerId);
+
+    // Keyset page of the public catalog by id, descending. That is only roughly newest first: ids come from books_seq in
+    // blocks per instance, so books listed at the same time on two instances interleave by block, not by time (Book has
+    // no creation timestamp to order on). The order is still total and stable, which is all the cursor needs.
+    // afterId is the last id of the previous page (null for page one).
+    List<BookListingDTO> findCatalogPage(Long afterId, String genre, Book.BookStatus status, Book.ListingType listingType, int limit);
+}
@@ -1,15 +1,21 @@
 package com.tradereads.repository;
 
+import com.tradereads.dto.BookListingDTO;
 import com.tradereads.model.Book;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookCatalogRepository {
     List<Book> findByOwnerId(Long userId);
     List<Book> findByOwnerIdAndStatus(Long userId, Book.BookStatus status);
     List<Book> findByGenre(String genre);
@@ -24,4 +30,21 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     Optional<Book> findByIdAndOwnerId(Long id, Long ownerId);
 
     boolean existsByIsbnAndOwnerId(String isbn, Long ownerId);
+
+    // Every ISBN the owner already lists, for de-duplicating a bulk import in one query
+    @Query("SELECT b.isbn FROM Book b WHERE b.owner.id = :ownerId AND b.isbn IS NOT NULL")
+    Set<String> findIsbnsByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Listing projection (book columns + owner id/username), also built by BookCatalogRepositoryImpl
+    String LISTING_SELECT = "SELECT new com.tradereads.dto.BookListingDTO(b.id, b.title, b.author, b.isbn, b.genre, " +
+        "b.condition, b.description, b.status, b.listingType, o.id, o.username) FROM Book b JOIN b.owner o ";
+
+    @Query(LISTING_SELECT + "WHERE b.id IN :ids")
+    List<BookListingDTO> findListingsByIds(@Param("ids") Collection<Long> ids);
+
+    // Compare-and-set on the status column: 0 rows means another transaction moved the book first.
+    // Bulk updates skip @Version, so the version is bumped here to fail stale entity saves of the same row.
+    @Query("UPDATE Book b SET b.status = :to, b.version = b.version + 1 WHERE b.id = :bookId AND b.status = :from")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int transitionStatus(@Param("bookId") Long bookId, @Param("from") Book.BookStatus from, @Param("to") Book.BookStatus to);
 }
@@ -1,6 +1,7 @@
 package com.tradereads.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,15 +15,33 @@ import com.tradereads.model.RefreshToken;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
     List<RefreshToken> findByUserId(Long userId);
-    void deleteByToken(String token);
+    List<RefreshToken> findByExpiresAtAfter(Instant now);
+    void deleteByTokenHash(byte[] tokenHash);
     void deleteByUserId(Long userId);
 
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash IN :tokenHashes")
+    @Modifying
+    void deleteByTokenHashIn(@Param("tokenHashes") Collection<byte[]> tokenHashes);
+
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
     @Modifying
     void deleteExpiredTokens(@Param("now") Instant now);
 
+    // One bounded batch of the expired-token reaper; returns the number of rows deleted
+    @Query(value = "DELETE FROM refresh_token WHERE id IN " +
+                   "(SELECT id FROM refresh_token WHERE expires_at < :now ORDER BY id LIMIT :batchSize)", nativeQuery = true)
+    @Modifying
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    // Session cap: deletes every active token of the user except the newest `keep`, in one statement
+    @Query(value = "DELETE FROM refresh_token WHERE id IN " +
+                   "(SELECT id FROM refresh_token WHERE user_id = :userId AND expires_at > :now " +
+                   "ORDER BY created_at DESC, id DESC OFFSET :keep ROWS)", nativeQuery = true)
+    @Modifying
+    int deleteActiveBeyondNewest(@Param("userId") Long userId, @Param("now") Instant now, @Param("keep") int keep);
+
     @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.userId = :userId AND rt.expiresAt > :now")
     long countActiveTokensForUser(@Param("userId") Long userId, @Param("now") Instant now);
 }
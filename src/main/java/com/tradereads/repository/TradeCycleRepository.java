@@ -0,0 +1,35 @@
+package com.tradereads.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tradereads.model.TradeCycle;
+
+@Repository
+public interface TradeCycleRepository extends JpaRepository<TradeCycle, Long> {
+    boolean existsBySignature(String signature);
+
+    // Proposed cycles the user takes part in, with every member request and its parties/books in one statement
+    @EntityGraph(attributePaths = {"tradeRequests", "tradeRequests.requester", "tradeRequests.owner", "tradeRequests.requestedBook.owner", "tradeRequests.offeredBook.owner"})
+    @Query("SELECT DISTINCT c FROM TradeCycle c JOIN c.tradeRequests tr " +
+           "WHERE c.status = 'PROPOSED' AND (tr.requester.id = :userId OR tr.owner.id = :userId) ORDER BY c.id DESC")
+    List<TradeCycle> findProposedForUser(@Param("userId") Long userId);
+
+    // A member request left PENDING, so every proposal containing it is void
+    @Query(value = "UPDATE trade_cycles SET status = 'EXPIRED' WHERE status = 'PROPOSED' AND id IN " +
+                   "(SELECT cycle_id FROM trade_cycle_requests WHERE trade_request_id = :tradeRequestId)", nativeQuery = true)
+    @Modifying
+    int expireContaining(@Param("tradeRequestId") Long tradeRequestId);
+
+    @Query(value = "UPDATE trade_cycles SET status = 'EXPIRED' WHERE status = 'PROPOSED' AND id IN " +
+                   "(SELECT cycle_id FROM trade_cycle_requests WHERE trade_request_id IN :tradeRequestIds)", nativeQuery = true)
+    @Modifying
+    int expireContainingAny(@Param("tradeRequestIds") Collection<Long> tradeRequestIds);
+}
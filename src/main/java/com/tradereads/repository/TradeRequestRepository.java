@@ -1,9 +1,14 @@
 package com.tradereads.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,24 +16,39 @@ import org.springframework.stereotype.Repository;
 import com.tradereads.model.TradeRequest;
 import com.tradereads.model.TradeRequest.TradeStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface TradeRequestRepository extends JpaRepository<TradeRequest, Long> {
     // Find all trade request where user is the requester
+    @EntityGraph(TradeRequest.WITH_PARTIES)
     List<TradeRequest> findByRequesterIdOrderByCreatedAtDesc(Long requesterId);
     
     // Find all trade requests where user is the owner of the requested book
+    @EntityGraph(TradeRequest.WITH_PARTIES)
     List<TradeRequest> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
 
     // Find trade requests by status for a specific user (as requester)
-    List<TradeRequest> findByRequesterIdAndStatusOrderByCreatedAtDesc(Long requesterId, TradeStatus status);
+    @EntityGraph(TradeRequest.WITH_PARTIES)
+    @Query("SELECT tr FROM TradeRequest tr WHERE tr.requester.id = :requesterId AND tr.status = :status ORDER BY tr.createdAt DESC")
+    List<TradeRequest> findByRequesterIdAndStatusOrderByCreatedAtDesc(@Param("requesterId") Long requesterId, @Param("status") TradeStatus status);
 
     // Find trade requests by status for a specific user (as owner)
-    List<TradeRequest> findByOwnerIdAndStatusOrderByCreatedAtDesc(Long ownerId, TradeStatus status);
+    @EntityGraph(TradeRequest.WITH_PARTIES)
+    @Query("SELECT tr FROM TradeRequest tr WHERE tr.owner.id = :ownerId AND tr.status = :status ORDER BY tr.createdAt DESC")
+    List<TradeRequest> findByOwnerIdAndStatusOrderByCreatedAtDesc(@Param("ownerId") Long ownerId, @Param("status") TradeStatus status);
+
+    // Single requests are returned as response bodies too, so they load the same graph as the lists
+    @EntityGraph(TradeRequest.WITH_PARTIES)
+    @Query("SELECT tr FROM TradeRequest tr WHERE tr.id = :id")
+    Optional<TradeRequest> findWithPartiesById(@Param("id") Long id);
 
     // Find trade request by ID and requester (for authorization)
+    @EntityGraph(TradeRequest.WITH_PARTIES)
     Optional<TradeRequest> findByIdAndRequesterId(Long id, Long requesterId);
 
     // Find trade request by ID and owner (for authorization)
+    @EntityGraph(TradeRequest.WITH_PARTIES)
     Optional<TradeRequest> findByIdAndOwnerId(Long id, Long ownerId);
 
     // Check if there's already a pending trade request for this book by this user
@@ -36,10 +56,16 @@ public interface TradeRequestRepository extends JpaRepository<TradeRequest, Long
     Optional<TradeRequest> findPendingTradeRequest(@Param("requesterId") Long requesterId, @Param("bookId") Long bookId);
 
     // Find all trade requests for a specific book
+    @EntityGraph(TradeRequest.WITH_PARTIES)
     List<TradeRequest> findByRequestedBookIdOrderByCreatedAtDesc(Long BookId);
 
-    // Find all trade requests involving a specific book (either as requested or offered)
-    @Query("SELECT tr FROM TradeRequest tr WHERE tr.requestBook.id = :bookId " + "OR tr.offeredBook.id = :bookId ORDER BY tr.createdAt DESC")
+    // Find all trade requests involving a specific book (either as requested or offered).
+    // An OR across the two book columns cannot be answered from either index and scans trade_requests; the UNION below
+    // is one index lookup per column (same shape in findPendingForBooks).
+    @EntityGraph(TradeRequest.WITH_PARTIES)
+    @Query("SELECT tr FROM TradeRequest tr WHERE tr.id IN (" +
+           "SELECT r.id FROM TradeRequest r WHERE r.requestedBook.id = :bookId " +
+           "UNION SELECT r.id FROM TradeRequest r WHERE r.offeredBook.id = :bookId) ORDER BY tr.createdAt DESC")
     List<TradeRequest> findByInvolvedBookId(@Param("bookId") Long bookId);
 
     // Count pending requests for a user's books
@@ -49,4 +75,30 @@ public interface TradeRequestRepository extends JpaRepository<TradeRequest, Long
     // Count pending requests made by a user
     @Query("SELECT COUNT(tr) FROM TradeRequest tr WHERE tr.requester.id = :userId " + "AND tr.status = 'PENDING'")
     Long countPendingRequestsByUser(@Param("userId") Long userId);
+
+    // Other PENDING requests for either book of an accepted trade, row-locked until they are declined
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tr FROM TradeRequest tr WHERE tr.status = 'PENDING' AND tr.id <> :excludeId " +
+           "AND tr.id IN (SELECT r.id FROM TradeRequest r WHERE r.requestedBook.id IN :bookIds " +
+           "UNION SELECT r.id FROM TradeRequest r WHERE r.offeredBook.id IN :bookIds) ORDER BY tr.id")
+    List<TradeRequest> findPendingForBooks(@Param("bookIds") Collection<Long> bookIds, @Param("excludeId") Long excludeId);
+
+    // Compare-and-set on the status column for one or many requests; returns how many were still in :from.
+    // Bulk updates skip @Version and @UpdateTimestamp, so both are maintained here.
+    @Query("UPDATE TradeRequest tr SET tr.status = :to, tr.version = tr.version + 1, tr.updatedAt = LOCAL DATETIME " +
+           "WHERE tr.id IN :ids AND tr.status = :from")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") TradeStatus from, @Param("to") TradeStatus to);
+
+    // Wish graph seed for TradeCycleMatcher: PENDING requests on AVAILABLE books, in id-keyset batches
+    @Query("SELECT tr.id AS id, tr.requester.id AS requesterId, tr.owner.id AS ownerId, tr.requestedBook.id AS requestedBookId " +
+           "FROM TradeRequest tr WHERE tr.status = 'PENDING' AND tr.requestedBook.status = 'AVAILABLE' AND tr.id > :afterId ORDER BY tr.id")
+    List<OpenWish> findOpenWishes(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface OpenWish {
+        Long getId();
+        Long getRequesterId();
+        Long getOwnerId();
+        Long getRequestedBookId();
+    }
 }
@@ -3,6 +3,8 @@ package com.tradereads.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.tradereads.model.User;
@@ -12,4 +14,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    // Row lock on the user, held until the surrounding transaction ends; serializes per-user writes such as session limits
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Reports which of the registration identifiers are already taken, in one round trip and without loading any User
+    @Query("SELECT SUM(CASE WHEN u.username = :username THEN 1 ELSE 0 END) AS usernameMatches, " +
+           "SUM(CASE WHEN u.email = :email THEN 1 ELSE 0 END) AS emailMatches, " +
+           "SUM(CASE WHEN u.phoneNumber = :phoneNumber THEN 1 ELSE 0 END) AS phoneNumberMatches " +
+           "FROM User u WHERE u.username = :username OR u.email = :email OR u.phoneNumber = :phoneNumber")
+    IdentifierCollisions findIdentifierCollisions(@Param("username") String username, @Param("email") String email, @Param("phoneNumber") String phoneNumber);
+
+    interface IdentifierCollisions {
+        // SUM over no rows is NULL, so every getter may return null
+        Long getUsernameMatches();
+        Long getEmailMatches();
+        Long getPhoneNumberMatches();
+
+        default boolean usernameTaken() {
+            return getUsernameMatches() != null && getUsernameMatches() > 0;
+        }
+
+        default boolean emailTaken() {
+            return getEmailMatches() != null && getEmailMatches() > 0;
+        }
+
+        default boolean phoneNumberTaken() {
+            return getPhoneNumberMatches() != null && getPhoneNumberMatches() > 0;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.tradereads.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tradereads.model.UserTradeCounters;
+
+@Repository
+public interface UserTradeCountersRepository extends JpaRepository<UserTradeCounters, Long> {
+    // Atomic in-place increment; returns 0 when the user has no counter row yet
+    @Query(value = "UPDATE user_trade_counters SET pending_incoming = pending_incoming + :incomingDelta, " +
+                   "pending_outgoing = pending_outgoing + :outgoingDelta WHERE user_id = :userId", nativeQuery = true)
+    @Modifying
+    int increment(@Param("userId") Long userId, @Param("incomingDelta") long incomingDelta, @Param("outgoingDelta") long outgoingDelta);
+
+    // Callers serialize on the user row (UserRepository.lockById) so two inserts for one user cannot race
+    @Query(value = "INSERT INTO user_trade_counters (user_id, pending_incoming, pending_outgoing) " +
+                   "SELECT :userId, 0, 0 WHERE NOT EXISTS (SELECT 1 FROM user_trade_counters WHERE user_id = :userId)", nativeQuery = true)
+    @Modifying
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Reconciliation: counter rows for users created without one (e.g. registered since the last run)
+    @Query(value = "INSERT INTO user_trade_counters (user_id, pending_incoming, pending_outgoing) " +
+                   "SELECT u.id, 0, 0 FROM users u WHERE NOT EXISTS (SELECT 1 FROM user_trade_counters c WHERE c.user_id = u.id)", nativeQuery = true)
+    @Modifying
+    int insertMissing();
+
+    // Reconciliation: next keyset batch of counter rows, locked so no trade transition for these users runs concurrently
+    @Query(value = "SELECT user_id FROM user_trade_counters WHERE user_id > :afterUserId ORDER BY user_id LIMIT :batchSize FOR UPDATE", nativeQuery = true)
+    List<Long> lockBatch(@Param("afterUserId") Long afterUserId, @Param("batchSize") int batchSize);
+
+    // Reconciliation: recounts the given users from trade_requests and rewrites only the rows that drifted
+    @Query(value = "UPDATE user_trade_counters SET " +
+                   "pending_incoming = (SELECT COUNT(*) FROM trade_requests t WHERE t.owner_id = user_trade_counters.user_id AND t.status = 'PENDING'), " +
+                   "pending_outgoing = (SELECT COUNT(*) FROM trade_requests t WHERE t.requester_id = user_trade_counters.user_id AND t.status = 'PENDING') " +
+                   "WHERE user_id IN :userIds AND (" +
+                   "pending_incoming <> (SELECT COUNT(*) FROM trade_requests t WHERE t.owner_id = user_trade_counters.user_id AND t.status = 'PENDING') OR " +
+                   "pending_outgoing <> (SELECT COUNT(*) FROM trade_requests t WHERE t.requester_id = user_trade_counters.user_id AND t.status = 'PENDING'))", nativeQuery = true)
+    @Modifying
+    int recount(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,241 @@
+package com.tradereads.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tradereads.dto.BookCreationRequestDTO;
+import com.tradereads.dto.BookImportReportDTO;
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Bulk import of one owner's listings from a streamed CSV or NDJSON body. Rows are parsed one at a time and written in
+// chunks of books.import.batch-size, each chunk in its own short transaction, so neither the body nor the import is ever
+// held whole. Committed chunks stay committed; the report lists every row that was skipped or failed.
+@Service
+public class BookImportService {
+    public enum Format { CSV, NDJSON }
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final BookService bookService;
+    private final UserService userService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+        .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+        .enable(CsvParser.Feature.TRIM_SPACES)
+        .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+        .build();
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    private record ParsedRow(long row, Book book) {}
+
+    public BookImportService(
+        BookService bookService,
+        UserService userService,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Value("${books.import.batch-size:500}") int batchSize,
+        @Value("${books.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bookService = bookService;
+        this.userService = userService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BookImportReportDTO importBooks(Long ownerId, InputStream body, Format format) throws IOException {
+        User owner = userService.getUserById(ownerId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // One query for the owner's existing ISBNs; rows of the same file are added as they are accepted
+        Set<String> knownIsbns = new HashSet<>(bookService.getIsbnsOfOwner(ownerId));
+        BookImportReportDTO report = new BookImportReportDTO();
+        List<ParsedRow> chunk = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+
+        try (MappingIterator<Map<String, Object>> rows = open(body, format)) {
+            while (true) {
+                Map<String, Object> row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resync reliably after broken quoting or JSON, so the rest of the body is not read
+                    report.setRows(report.getRows() + 1);
+                    fail(report, rowNumber + 1, null, "Malformed input, import stopped here: " + e.getOriginalMessage());
+                    break;
+                }
+                rowNumber++;
+                report.setRows(report.getRows() + 1);
+
+                Book book;
+                try {
+                    book = toBook(row, owner);
+                } catch (IllegalArgumentException e) {
+                    fail(report, rowNumber, text(row, "isbn"), e.getMessage());
+                    continue;
+                }
+                if (book.getIsbn() != null && !knownIsbns.add(book.getIsbn())) {
+                    duplicate(report, rowNumber, book.getIsbn());
+                    continue;
+                }
+
+                chunk.add(new ParsedRow(rowNumber, book));
+                if (chunk.size() == batchSize) {
+                    write(chunk, ownerId, knownIsbns, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, ownerId, knownIsbns, report);
+        }
+        return report;
+    }
+
+    private MappingIterator<Map<String, Object>> open(InputStream body, Format format) throws IOException {
+        if (format == Format.CSV) {
+            return csvMapper.readerFor(ROW_TYPE).with(CsvSchema.emptySchema().withHeader()).readValues(body);
+        }
+        return objectMapper.readerFor(ROW_TYPE).readValues(body);
+    }
+
+    // Same rules as POST /api/books/my-books (the DTO's constraints), status defaulting to AVAILABLE
+    private Book toBook(Map<String, Object> row, User owner) {
+        BookCreationRequestDTO request = new BookCreationRequestDTO(
+            text(row, "title"),
+            text(row, "author"),
+            text(row, "isbn"),
+            text(row, "genre"),
+            text(row, "condition"),
+            text(row, "description"),
+            parse(BookStatus.class, text(row, "status"), "Invalid status"),
+            parse(ListingType.class, text(row, "listingType"), "Invalid listing type")
+        );
+
+        Set<ConstraintViolation<BookCreationRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+        }
+
+        return new Book(
+            request.getTitle(),
+            request.getAuthor(),
+            request.getIsbn(),
+            request.getGenre(),
+            request.getCondition(),
+            request.getDescription(),
+            request.getStatus() != null ? request.getStatus() : BookStatus.AVAILABLE,
+            request.getListingType(),
+            owner
+        );
+    }
+
+    private void write(List<ParsedRow> chunk, Long ownerId, Set<String> knownIsbns, BookImportReportDTO report) {
+        try {
+            save(chunk, report);
+        } catch (DataIntegrityViolationException e) {
+            // A listing with one of these ISBNs was added since the import started: drop those rows and retry the rest once
+            Set<String> current = bookService.getIsbnsOfOwner(ownerId);
+            knownIsbns.addAll(current);
+            List<ParsedRow> retry = new ArrayList<>(chunk.size());
+            for (ParsedRow row : chunk) {
+                if (row.book().getIsbn() != null && current.contains(row.book().getIsbn())) {
+                    duplicate(report, row.row(), row.book().getIsbn());
+                } else {
+                    // The rolled back attempt already assigned these
+                    row.book().setId(null);
+                    row.book().setVersion(null);
+                    retry.add(row);
+                }
+            }
+            try {
+                save(retry, report);
+            } catch (DataAccessException again) {
+                for (ParsedRow row : retry) {
+                    fail(report, row.row(), row.book().getIsbn(), "Could not be saved, please retry this row");
+                }
+            }
+        }
+    }
+
+    private void save(List<ParsedRow> rows, BookImportReportDTO report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> bookService.saveImportedBooks(rows.stream().map(ParsedRow::book).toList(), batchSize));
+        report.setImported(report.getImported() + rows.size());
+    }
+
+    private void duplicate(BookImportReportDTO report, long row, String isbn) {
+        report.setDuplicates(report.getDuplicates() + 1);
+        addError(report, row, isbn, "You already have a book with this ISBN");
+    }
+
+    private void fail(BookImportReportDTO report, long row, String isbn, String error) {
+        report.setFailed(report.getFailed() + 1);
+        addError(report, row, isbn, error);
+    }
+
+    private void addError(BookImportReportDTO report, long row, String isbn, String error) {
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new BookImportReportDTO.RowError(row, isbn, error));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // Blank cells (CSV has no null) and missing keys both read as null
+    private static String text(Map<String, Object> row, String field) {
+        Object value = row.get(field);
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String error) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.tradereads.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over book title/author/genre/description, ranked with BM25.
+// Terms live in a sorted map so a query token also matches every indexed term it is a prefix of.
+// Thread-safe: searches share a read lock, index updates take the write lock.
+class BookSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float GENRE_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // BM25 parameters; prefix expansions score lower than exact term hits
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_PENALTY = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documentTerms = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private double totalLength;
+
+    void upsert(Long bookId, String title, String author, String genre, String description) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, title, TITLE_WEIGHT);
+        addField(terms, author, AUTHOR_WEIGHT);
+        addField(terms, genre, GENRE_WEIGHT);
+        addField(terms, description, DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        for (float weight : terms.values()) {
+            length += weight;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(bookId, term.getValue());
+            }
+            documentTerms.put(bookId, terms);
+            documentLengths.put(bookId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns matching book ids, best match first
+    List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+
+            for (String queryTerm : queryTerms) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+                    String term = entry.getKey();
+                    if (!term.startsWith(queryTerm) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+
+                    Map<Long, Float> docs = entry.getValue();
+                    double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    double boost = term.equals(queryTerm) ? 1.0 : PREFIX_PENALTY;
+                    for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                        double tf = posting.getValue();
+                        double norm = 1 - B + B * documentLengths.get(posting.getKey()) / averageLength;
+                        scores.merge(posting.getKey(), boost * idf * tf * (K1 + 1) / (tf + K1 * norm), Double::sum);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long bookId) {
+        Map<String, Float> terms = documentTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(bookId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= documentLengths.remove(bookId);
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
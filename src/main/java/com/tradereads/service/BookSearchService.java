@@ -0,0 +1,143 @@
+package com.tradereads.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.tradereads.components.AfterCommit;
+import com.tradereads.dto.BookListingDTO;
+import com.tradereads.model.Book;
+import com.tradereads.repository.BookRepository;
+
+@Service
+public class BookSearchService {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantLock runLock = new ReentrantLock(); // serializes rebuilds; not a monitor, they block on JDBC
+    private volatile BookSearchIndex index = new BookSearchIndex();
+
+    // Orders incremental updates against rebuild batches and the swap; only held for in-memory index work
+    private final Object updateLock = new Object();
+    private BookSearchIndex rebuilding; // receives incremental updates while a rebuild is in progress
+    // Books updated or removed since the rebuild started. A batch may have been read before such an update committed,
+    // so its row for the book is older than what the update already put in the fresh index and is skipped.
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    public BookSearchService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Builds a fresh index from the DB in keyset batches and swaps it in; searches keep using the old one meanwhile
+    public void rebuild() {
+        runLock.lock();
+        try {
+            BookSearchIndex fresh = new BookSearchIndex();
+            synchronized (updateLock) {
+                rebuilding = fresh;
+            }
+            try {
+                Long afterId = null;
+                List<BookListingDTO> batch;
+                do {
+                    batch = bookRepository.findCatalogPage(afterId, null, null, null, REBUILD_BATCH_SIZE);
+                    synchronized (updateLock) {
+                        for (BookListingDTO book : batch) {
+                            if (!changedDuringRebuild.contains(book.getId())) {
+                                fresh.upsert(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre(), book.getDescription());
+                            }
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        afterId = batch.get(batch.size() - 1).getId();
+                    }
+                } while (batch.size() == REBUILD_BATCH_SIZE);
+
+                synchronized (updateLock) {
+                    index = fresh;
+                }
+            } finally {
+                synchronized (updateLock) {
+                    rebuilding = null;
+                    changedDuringRebuild.clear();
+                }
+            }
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    public void index(Book book) {
+        Long id = book.getId();
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        String genre = book.getGenre();
+        String description = book.getDescription();
+        AfterCommit.run(() -> apply(List.of(id), target -> target.upsert(id, title, author, genre, description)));
+    }
+
+    // Bulk variant for imports: one after-commit hook for the whole batch instead of one per book
+    public void indexAll(List<Book> books) {
+        List<IndexedFields> entries = books.stream()
+            .map(b -> new IndexedFields(b.getId(), b.getTitle(), b.getAuthor(), b.getGenre(), b.getDescription()))
+            .toList();
+        List<Long> ids = entries.stream().map(IndexedFields::id).toList();
+        AfterCommit.run(() -> apply(ids, target -> entries.forEach(e -> target.upsert(e.id(), e.title(), e.author(), e.genre(), e.description()))));
+    }
+
+    public void remove(Long bookId) {
+        AfterCommit.run(() -> apply(List.of(bookId), target -> target.remove(bookId)));
+    }
+
+    public List<BookListingDTO> search(String query, int limit) {
+        List<Long> rankedIds = index.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // One query for the page, then restore rank order
+        Map<Long, BookListingDTO> byId = bookRepository.findListingsByIds(rankedIds).stream()
+            .collect(Collectors.toMap(BookListingDTO::getId, Function.identity()));
+        List<BookListingDTO> results = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            BookListingDTO book = byId.get(id);
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    public int getIndexedCount() {
+        return index.size();
+    }
+
+    // Copied at write time, like index() does, so the hook never reads an entity after its session is gone
+    private record IndexedFields(Long id, String title, String author, String genre, String description) {}
+
+    private void apply(List<Long> bookIds, Consumer<BookSearchIndex> update) {
+        synchronized (updateLock) {
+            update.accept(index);
+            if (rebuilding != null) {
+                update.accept(rebuilding);
+                changedDuringRebuild.addAll(bookIds);
+            }
+        }
+    }
+}
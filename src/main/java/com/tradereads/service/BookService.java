@@ -1,23 +1,62 @@
 package com.tradereads.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.hibernate.Session;
 import org.springframework.stereotype.Service;
 
+import com.tradereads.components.CatalogVersions;
+import com.tradereads.dto.BookListingDTO;
+import com.tradereads.dto.CursorPageDTO;
 import com.tradereads.model.Book;
 import com.tradereads.repository.BookRepository;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class BookService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final BookRepository bookRepository;
+    private final BookSearchService bookSearchService;
+    private final CatalogVersions catalogVersions;
+    private final EntityManager entityManager;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookSearchService bookSearchService, CatalogVersions catalogVersions, EntityManager entityManager) {
         this.bookRepository = bookRepository;
+        this.bookSearchService = bookSearchService;
+        this.catalogVersions = catalogVersions;
+        this.entityManager = entityManager;
     }
 
+    // Every write below also bumps CatalogVersions, which the ETags of the public book endpoints are built from
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        bookSearchService.index(saved);
+        catalogVersions.bookChanged(saved.getId());
+        return saved;
+    }
+
+    // One JDBC batch per flush (books.id comes from a sequence), one search-index hook and one catalog bump per call
+    public List<Book> saveImportedBooks(List<Book> books, int batchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Book> saved = bookRepository.saveAll(books);
+        bookRepository.flush();
+        // Under open-in-view the request's persistence context outlives each chunk's transaction; without this it would
+        // hold every book imported so far and dirty-check all of them again on each flush
+        entityManager.clear();
+        bookSearchService.indexAll(saved);
+        catalogVersions.booksAdded();
+        return saved;
+    }
+
+    public Set<String> getIsbnsOfOwner(Long ownerId) {
+        return bookRepository.findIsbnsByOwnerId(ownerId);
     }
 
     public Optional<Book> getBookById(Long id) {
@@ -37,11 +76,31 @@ public class BookService {
     }
 
     public Book updateBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        bookSearchService.index(saved);
+        catalogVersions.bookChanged(saved.getId());
+        return saved;
+    }
+
+    // Status-only change guarded by the current status; false when another transaction changed the book first.
+    // The search index holds no status, so it is left alone.
+    public boolean transitionStatus(Long bookId, Book.BookStatus from, Book.BookStatus to) {
+        if (bookRepository.transitionStatus(bookId, from, to) == 0) {
+            return false;
+        }
+        catalogVersions.bookChanged(bookId);
+        return true;
     }
 
     public void deleteBook(Long id) {
         bookRepository.deleteById(id);
+        bookSearchService.remove(id);
+        catalogVersions.bookChanged(id);
+    }
+
+    public List<BookListingDTO> searchBooks(String query, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return bookSearchService.search(query, pageSize);
     }
 
     public List<Book> getBooksByUserId(Long userId) {
@@ -79,4 +138,37 @@ public class BookService {
     public List<Book> getBooksByUserIdAndStatusAndListingType(Long userId, Book.BookStatus status, Book.ListingType listingType) {
         return bookRepository.findByOwnerIdAndStatusAndListingType(userId, status, listingType);
     }
+
+    public List<BookListingDTO> getBookListings(String genre, Book.BookStatus status, Book.ListingType listingType, Long excludeOwnerId) {
+        return bookRepository.findListings(genre, status, listingType, excludeOwnerId);
+    }
+
+    public CursorPageDTO<BookListingDTO> getCatalogPage(String cursor, Integer limit, String genre, Book.BookStatus status, Book.ListingType listingType) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Long afterId = decodeCursor(cursor);
+
+        // Fetch one extra row to know whether there is a next page without a COUNT query
+        List<BookListingDTO> rows = bookRepository.findCatalogPage(afterId, genre, status, listingType, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPageDTO<>(rows, null, pageSize);
+        }
+
+        List<BookListingDTO> page = rows.subList(0, pageSize);
+        return new CursorPageDTO<>(page, encodeCursor(page.get(pageSize - 1).getId()), pageSize);
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.tradereads.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tradereads.model.RefreshToken;
+import com.tradereads.repository.RefreshTokenRepository;
+import com.tradereads.repository.UserRepository;
+
+// Default store: every call goes straight to the refresh_token table, in a transaction of its own
+@Component
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "database", matchIfMissing = true)
+@Transactional
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    public DatabaseRefreshTokenStore(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    @Override
+    public void saveWithinSessionLimit(RefreshToken refreshToken, int maxSessions) {
+        // Concurrent logins of the same user queue on the user row, so each one sees the previous one's insert
+        userRepository.lockById(refreshToken.getUserId());
+        refreshTokenRepository.deleteActiveBeyondNewest(refreshToken.getUserId(), refreshToken.getCreatedAt(), maxSessions - 1);
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> findByTokenHash(byte[] tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RefreshToken> findByUserId(Long userId) {
+        return refreshTokenRepository.findByUserId(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countActiveTokensForUser(Long userId, Instant now) {
+        return refreshTokenRepository.countActiveTokensForUser(userId, now);
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        refreshTokenRepository.delete(refreshToken);
+    }
+
+    @Override
+    public void deleteByTokenHash(byte[] tokenHash) {
+        refreshTokenRepository.deleteByTokenHash(tokenHash);
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    public void evictExpiredTokens(Instant now) {
+        // Nothing held in memory
+    }
+}
@@ -0,0 +1,315 @@
+package com.tradereads.service;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tradereads.model.RefreshToken;
+import com.tradereads.repository.RefreshTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Serves every read from memory (indexed by token digest and by userId) and writes new tokens to the DB in batches.
+// Revocations go to the DB before returning, so a revoked token cannot come back from the table after a restart.
+// The in-memory index is the source of truth while the app runs, so only use this with a single app instance.
+@Component
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<ByteBuffer, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<ByteBuffer>> tokensByUser = new ConcurrentHashMap<>();
+
+    // Held while pending rows are written and by every synchronous delete, so a delete never runs between a flush's
+    // insert and its commit and misses the row. Taken before pendingLock; not a monitor, holders block on JDBC.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Write-behind queue; a delete of a token that is still waiting to be inserted cancels both.
+    // pendingDeletes only holds revocations whose synchronous delete failed, for the next flush to retry.
+    private final Object pendingLock = new Object();
+    private Map<ByteBuffer, RefreshToken> pendingInserts = new LinkedHashMap<>();
+    private Set<ByteBuffer> pendingDeletes = new HashSet<>();
+
+    public InMemoryRefreshTokenStore(
+        RefreshTokenRepository refreshTokenRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${refresh-token.write-behind.max-pending:10000}") int maxPending) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPending = Math.max(maxPending, 1);
+    }
+
+    @PostConstruct
+    void load() {
+        for (RefreshToken refreshToken : refreshTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            index(refreshToken);
+        }
+        log.info("Loaded {} active refresh tokens into memory", tokens.size());
+    }
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        reserveBacklog();
+        index(refreshToken);
+        synchronized (pendingLock) {
+            pendingInserts.put(key(refreshToken), refreshToken);
+        }
+    }
+
+    @Override
+    public void saveWithinSessionLimit(RefreshToken refreshToken, int maxSessions) {
+        reserveBacklog();
+        List<ByteBuffer> evicted = new ArrayList<>();
+        // compute() holds the user's map bin for the whole trim + insert, serializing logins of the same user
+        tokensByUser.compute(refreshToken.getUserId(), (userId, userTokens) -> {
+            Set<ByteBuffer> set = userTokens != null ? userTokens : ConcurrentHashMap.newKeySet();
+            List<RefreshToken> active = new ArrayList<>();
+            for (ByteBuffer token : set) {
+                RefreshToken existing = tokens.get(token);
+                if (existing != null && existing.getExpiresAt().isAfter(refreshToken.getCreatedAt())) {
+                    active.add(existing);
+                }
+            }
+            active.sort(Comparator.comparing(RefreshToken::getCreatedAt).reversed());
+            for (RefreshToken oldest : active.subList(Math.min(active.size(), maxSessions - 1), active.size())) {
+                set.remove(key(oldest));
+                tokens.remove(key(oldest));
+                evicted.add(key(oldest));
+            }
+            tokens.put(key(refreshToken), refreshToken);
+            set.add(key(refreshToken));
+            return set;
+        });
+
+        synchronized (pendingLock) {
+            pendingInserts.put(key(refreshToken), refreshToken);
+        }
+        // The sessions pushed out by the cap are revoked like a logout
+        deleteFromDatabase(evicted);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(byte[] tokenHash) {
+        return Optional.ofNullable(tokens.get(ByteBuffer.wrap(tokenHash)));
+    }
+
+    @Override
+    public List<RefreshToken> findByUserId(Long userId) {
+        Set<ByteBuffer> userTokens = tokensByUser.get(userId);
+        if (userTokens == null) {
+            return List.of();
+        }
+        return userTokens.stream().map(tokens::get).filter(t -> t != null).toList();
+    }
+
+    @Override
+    public long countActiveTokensForUser(Long userId, Instant now) {
+        return findByUserId(userId).stream().filter(t -> t.getExpiresAt().isAfter(now)).count();
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        deleteByKey(key(refreshToken));
+    }
+
+    @Override
+    public void deleteByTokenHash(byte[] tokenHash) {
+        deleteByKey(ByteBuffer.wrap(tokenHash));
+    }
+
+    private void deleteByKey(ByteBuffer token) {
+        if (unindex(token) != null) {
+            deleteFromDatabase(List.of(token));
+        }
+    }
+
+    @Override
+    public void deleteByUserId(Long userId) {
+        Set<ByteBuffer> userTokens = tokensByUser.get(userId);
+        if (userTokens == null) {
+            return;
+        }
+        List<ByteBuffer> removed = new ArrayList<>();
+        for (ByteBuffer token : List.copyOf(userTokens)) {
+            if (unindex(token) != null) {
+                removed.add(token);
+            }
+        }
+        deleteFromDatabase(removed);
+    }
+
+    // Tokens still waiting to be inserted are just dropped from the queue; the rest are deleted in one statement now.
+    // If that fails they are queued for the next flush and the error is rethrown: the token is already gone from memory,
+    // but the caller should not report the revocation as durable.
+    private void deleteFromDatabase(List<ByteBuffer> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            List<ByteBuffer> persisted = new ArrayList<>();
+            synchronized (pendingLock) {
+                for (ByteBuffer token : removed) {
+                    if (pendingInserts.remove(token) == null) {
+                        persisted.add(token);
+                    }
+                }
+            }
+            if (persisted.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    refreshTokenRepository.deleteByTokenHashIn(persisted.stream().map(ByteBuffer::array).toList()));
+            } catch (RuntimeException e) {
+                synchronized (pendingLock) {
+                    pendingDeletes.addAll(persisted);
+                }
+                throw e;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void evictExpiredTokens(Instant now) {
+        tokens.values().removeIf(t -> {
+            if (t.getExpiresAt().isBefore(now)) {
+                unindexUser(t);
+                return true;
+            }
+            return false;
+        });
+        synchronized (pendingLock) {
+            pendingInserts.values().removeIf(t -> t.getExpiresAt().isBefore(now));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            writePending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caps the write-behind queue: past maxPending the caller flushes it itself, and if the DB still cannot take it
+    // (the queue only grows while flushes fail) new sessions are refused instead of piling up in memory
+    private void reserveBacklog() {
+        if (pendingCount() < maxPending) {
+            return;
+        }
+        flush();
+        if (pendingCount() >= maxPending) {
+            throw new IllegalStateException("Refresh token write-behind queue is full");
+        }
+    }
+
+    private int pendingCount() {
+        synchronized (pendingLock) {
+            return pendingInserts.size() + pendingDeletes.size();
+        }
+    }
+
+    private void writePending() {
+        Map<ByteBuffer, RefreshToken> inserts;
+        Set<ByteBuffer> deletes;
+        synchronized (pendingLock) {
+            if (pendingInserts.isEmpty() && pendingDeletes.isEmpty()) {
+                return;
+            }
+            inserts = pendingInserts;
+            deletes = pendingDeletes;
+            pendingInserts = new LinkedHashMap<>();
+            pendingDeletes = new HashSet<>();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    refreshTokenRepository.deleteByTokenHashIn(deletes.stream().map(ByteBuffer::array).toList());
+                }
+                if (!inserts.isEmpty()) {
+                    refreshTokenRepository.saveAll(inserts.values());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Refresh token write-behind flush failed, will retry {} inserts and {} deletes", inserts.size(), deletes.size(), e);
+            requeue(inserts, deletes);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void requeue(Map<ByteBuffer, RefreshToken> inserts, Set<ByteBuffer> deletes) {
+        synchronized (pendingLock) {
+            for (RefreshToken refreshToken : inserts.values()) {
+                // Deleted while the flush was failing: it never reached the DB, so drop both
+                if (!pendingDeletes.remove(key(refreshToken))) {
+                    // The rolled back flush already gave it an id from the sequence; saveAll must insert it again, not merge
+                    refreshToken.setId(null);
+                    pendingInserts.putIfAbsent(key(refreshToken), refreshToken);
+                }
+            }
+            pendingDeletes.addAll(deletes);
+        }
+    }
+
+    private void index(RefreshToken refreshToken) {
+        tokens.put(key(refreshToken), refreshToken);
+        tokensByUser.compute(refreshToken.getUserId(), (userId, userTokens) -> {
+            Set<ByteBuffer> set = userTokens != null ? userTokens : ConcurrentHashMap.newKeySet();
+            set.add(key(refreshToken));
+            return set;
+        });
+    }
+
+    // Digests are keyed as ByteBuffers, which compare by content unlike byte[]
+    private static ByteBuffer key(RefreshToken refreshToken) {
+        return ByteBuffer.wrap(refreshToken.getTokenHash());
+    }
+
+    private RefreshToken unindex(ByteBuffer token) {
+        RefreshToken removed = tokens.remove(token);
+        if (removed != null) {
+            unindexUser(removed);
+        }
+        return removed;
+    }
+
+    private void unindexUser(RefreshToken refreshToken) {
+        tokensByUser.computeIfPresent(refreshToken.getUserId(), (userId, userTokens) -> {
+            userTokens.remove(key(refreshToken));
+            return userTokens.isEmpty() ? null : userTokens;
+        });
+    }
+}
@@ -1,29 +1,72 @@
 package com.tradereads.service;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class JwtService {
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
     @Value("${jwt.secret:mySecretKey12345678901234567890123456789012345678901234567890}")
     private String secret;
 
     @Value("${jwt.access-token-expiration:600000}") // 10 minutes in milliseconds
     private long accessTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Key and parser are derived once and swapped together so a rotation never mixes them
+    private volatile SigningMaterial signingMaterial;
+
+    // Run after every key change, e.g. VerifiedTokenCache dropping claims it verified with the old key
+    private final List<Runnable> keyRotationListeners = new CopyOnWriteArrayList<>();
+
+    // Every signature check, by result; cache hits in VerifiedTokenCache never get here
+    private final Counter validTokens;
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.validTokens = verifications(meterRegistry, "valid");
+        this.expiredTokens = verifications(meterRegistry, "expired");
+        this.invalidTokens = verifications(meterRegistry, "invalid");
+    }
+
+    private static Counter verifications(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.verifications").tag("result", result).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        rotateSigningKey(secret);
+    }
+
+    public void rotateSigningKey(String newSecret) {
+        this.signingMaterial = SigningMaterial.fromSecret(newSecret);
+        keyRotationListeners.forEach(Runnable::run);
+    }
+
+    public void onSigningKeyRotated(Runnable listener) {
+        keyRotationListeners.add(listener);
     }
 
     public String generateToken(String username, Long userId, String role) {
@@ -42,10 +85,28 @@ public class JwtService {
                 .claim("role", role)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingMaterial.key())
                 .compact();
     }
 
+    // Verifies the signature once and returns every claim the auth filter needs (expired tokens are rejected by the parser)
+    public Optional<VerifiedClaims> verifyToken(String token) {
+        Claims claims = extractAllClaims(token);
+        // A validly signed token without exp would otherwise never expire (and VerifiedTokenCache keys its lifetime off it)
+        if (claims == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+
+        Number userId = claims.get("userId", Number.class);
+        return Optional.of(new VerifiedClaims(
+            claims.getSubject(),
+            userId == null ? null : userId.longValue(),
+            claims.get("role", String.class),
+            claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+            claims.getExpiration().toInstant()
+        ));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -73,13 +134,18 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = signingMaterial.parser()
                     .parseSignedClaims(token)
                     .getPayload();
+            validTokens.increment();
+            return claims;
+        } catch (ExpiredJwtException e) {
+            expiredTokens.increment();
+            return null;
         } catch (Exception e) {
-            System.out.println("Error extracting claims from token: " + e.getMessage());
+            // Bad tokens come from clients, so they are counted rather than logged at a level that floods the log
+            invalidTokens.increment();
+            log.debug("Rejected token: {}", e.getMessage());
             return null;
         }
     }
@@ -92,4 +158,14 @@ public class JwtService {
         final String extractedUsername = extractUsername(token);
         return (extractedUsername.equals(username) && !isTokenExpired(token));
     }
+
+    public record VerifiedClaims(String subject, Long userId, String role, Instant issuedAt, Instant expiresAt) {}
+
+    // JwtParser instances are immutable and thread-safe once built
+    private record SigningMaterial(SecretKey key, JwtParser parser) {
+        static SigningMaterial fromSecret(String secret) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            return new SigningMaterial(key, Jwts.parser().verifyWith(key).build());
+        }
+    }
 }
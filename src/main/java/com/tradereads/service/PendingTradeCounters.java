@@ -0,0 +1,70 @@
+package com.tradereads.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.UserTradeCounters;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.repository.UserTradeCountersRepository;
+
+// Keeps user_trade_counters in step with trade request transitions.
+// Runs inside the caller's transaction, so a counter change commits or rolls back together with the trade request.
+@Service
+public class PendingTradeCounters {
+    private final UserTradeCountersRepository userTradeCountersRepository;
+    private final UserRepository userRepository;
+
+    public PendingTradeCounters(UserTradeCountersRepository userTradeCountersRepository, UserRepository userRepository) {
+        this.userTradeCountersRepository = userTradeCountersRepository;
+        this.userRepository = userRepository;
+    }
+
+    // A new PENDING request: +1 outgoing for the requester, +1 incoming for the owner
+    public void requestOpened(Long requesterId, Long ownerId) {
+        adjust(requesterId, ownerId, 1);
+    }
+
+    // A PENDING request was accepted, declined, cancelled or deleted
+    public void requestClosed(Long requesterId, Long ownerId) {
+        adjust(requesterId, ownerId, -1);
+    }
+
+    // Several requests closed at once (accepting a trade declines the ones competing for its books):
+    // deltas are summed per user and applied in ascending user id order, one statement per user
+    public void requestsClosed(Collection<TradeRequest> tradeRequests) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (TradeRequest tradeRequest : tradeRequests) {
+            deltas.computeIfAbsent(tradeRequest.getOwner().getId(), id -> new long[2])[0]--;
+            deltas.computeIfAbsent(tradeRequest.getRequester().getId(), id -> new long[2])[1]--;
+        }
+        deltas.forEach((userId, delta) -> increment(userId, delta[0], delta[1]));
+    }
+
+    public UserTradeCounters getCounts(Long userId) {
+        return userTradeCountersRepository.findById(userId).orElseGet(() -> new UserTradeCounters(userId));
+    }
+
+    private void adjust(Long requesterId, Long ownerId, long delta) {
+        // Always lock the lower user id first so two opposite-direction transitions cannot deadlock
+        if (requesterId < ownerId) {
+            increment(requesterId, 0, delta);
+            increment(ownerId, delta, 0);
+        } else {
+            increment(ownerId, delta, 0);
+            increment(requesterId, 0, delta);
+        }
+    }
+
+    private void increment(Long userId, long incomingDelta, long outgoingDelta) {
+        if (userTradeCountersRepository.increment(userId, incomingDelta, outgoingDelta) == 0) {
+            // First trade for a user without a counter row: create it while holding the user row lock
+            userRepository.lockById(userId);
+            userTradeCountersRepository.insertIfAbsent(userId);
+            userTradeCountersRepository.increment(userId, incomingDelta, outgoingDelta);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tradereads.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tradereads.repository.RefreshTokenRepository;
+
+// Deletes expired refresh_token rows in small batches, one short transaction per batch, so it never holds long locks
+@Component
+public class RefreshTokenReaper {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenReaper.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${refresh-token.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${refresh-token.reaper.batch-size:1000}")
+    private int batchSize;
+
+    // A lock rather than synchronized: the scheduler may run reap() on a virtual thread, which a monitor would pin during the deletes
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final AtomicLong totalRowsReaped = new AtomicLong();
+    private volatile long lastRunRows;
+    private volatile long lastRunDurationMillis;
+
+    public RefreshTokenReaper(RefreshTokenRepository refreshTokenRepository, RefreshTokenStore refreshTokenStore, PlatformTransactionManager transactionManager) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.reaper.interval-ms:3600000}", initialDelayString = "${refresh-token.reaper.initial-delay-ms:60000}")
+    public void scheduledReap() {
+        if (enabled) {
+            reap();
+        }
+    }
+
+    public long reap() {
+        runLock.lock();
+        try {
+            long start = System.nanoTime();
+            Instant now = Instant.now();
+            long reaped = 0;
+
+            int deleted;
+            do {
+                Integer batch = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+                deleted = batch == null ? 0 : batch;
+                reaped += deleted;
+            } while (deleted == batchSize);
+
+            refreshTokenStore.evictExpiredTokens(now);
+
+            lastRunRows = reaped;
+            lastRunDurationMillis = (System.nanoTime() - start) / 1_000_000;
+            totalRowsReaped.addAndGet(reaped);
+            if (reaped > 0) {
+                log.info("Reaped {} expired refresh tokens in {} ms", reaped, lastRunDurationMillis);
+            }
+            return reaped;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    public long getTotalRowsReaped() {
+        return totalRowsReaped.get();
+    }
+
+    public long getLastRunRows() {
+        return lastRunRows;
+    }
+
+    public long getLastRunDurationMillis() {
+        return lastRunDurationMillis;
+    }
+}
@@ -1,76 +1,114 @@
 package com.tradereads.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.tradereads.model.RefreshToken;
-import com.tradereads.repository.RefreshTokenRepository;
 
+// No transaction of its own: every method is one store call, and the store decides. The database store runs each call in
+// a transaction; the memory store answers reads without touching the pool and holds no connection while it waits to
+// write a revocation.
 @Service
-@Transactional
 public class RefreshTokenService {
-    private final RefreshTokenRepository refreshTokenRepository;
+    // 256 random bits per token from one shared DRBG. It is thread-safe and never blocks on the entropy pool once seeded;
+    // a per-thread instance would be created and seeded again for every request on virtual threads.
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = newSecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenStore refreshTokenStore;
 
     @Value("${jwt.refresh-token-expiration:604800000}") // 7 days in milliseconds
     private long refreshTokenExpiration;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
-        this.refreshTokenRepository = refreshTokenRepository;
+    @Value("${refresh-token.max-sessions:5}")
+    private int maxSessions;
+
+    private final RefreshTokenReaper refreshTokenReaper;
+
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore, RefreshTokenReaper refreshTokenReaper) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.refreshTokenReaper = refreshTokenReaper;
     }
 
     public String createRefreshToken(Long userId, String deviceInfo, String ipAddress) {
-        // Limit concurrent sessions per user 
-        long activeTokens = refreshTokenRepository.countActiveTokensForUser(userId, Instant.now());
-        if (activeTokens >= 5) {
-            List<RefreshToken> userTokens = refreshTokenRepository.findByUserId(userId);
-            userTokens.stream()
-                .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
-                .min((t1, t2) -> t1.getCreatedAt().compareTo(t2.getCreatedAt()))
-                .ifPresent(oldestToken -> refreshTokenRepository.delete(oldestToken));
-        }
+        byte[] randomBytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(randomBytes);
+        String token = TOKEN_ENCODER.encodeToString(randomBytes);
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(refreshTokenExpiration);
 
-        String token = UUID.randomUUID().toString();
-        Instant expiresAt = Instant.now().plusMillis(refreshTokenExpiration);
-
-        RefreshToken refreshToken = new RefreshToken(token, userId, expiresAt, Instant.now(), deviceInfo, ipAddress);
-        refreshTokenRepository.save(refreshToken);
+        // The store drops the user's oldest active sessions beyond the cap and inserts atomically per user
+        RefreshToken refreshToken = new RefreshToken(hash(token), userId, expiresAt, now, deviceInfo, ipAddress);
+        refreshTokenStore.saveWithinSessionLimit(refreshToken, Math.max(maxSessions, 1));
 
         return token;
     }
 
     public boolean validateRefreshToken(String token) {
-        Optional<RefreshToken> refreshToken = refreshTokenRepository.findByToken(token);
+        Optional<RefreshToken> refreshToken = findByToken(token);
         return refreshToken.isPresent() && refreshToken.get().getExpiresAt().isAfter(Instant.now());
     }
 
     public Optional<Long> getUserIdFromRefreshToken(String token) {
-        return refreshTokenRepository.findByToken(token)
+        return findByToken(token)
             .filter(rt -> rt.getExpiresAt().isAfter(Instant.now()))
             .map(RefreshToken::getUserId);
     }
 
     public void revokeRefreshToken(String token) {
-        refreshTokenRepository.deleteByToken(token);
+        if (token != null) {
+            refreshTokenStore.deleteByTokenHash(hash(token));
+        }
     }
 
     public void revokeAllUserTokens(Long userId) {
-        refreshTokenRepository.deleteByUserId(userId);
+        refreshTokenStore.deleteByUserId(userId);
     }
 
     public List<RefreshToken> getUserActiveSessions(Long userId) {
-        return refreshTokenRepository.findByUserId(userId)
+        return refreshTokenStore.findByUserId(userId)
             .stream()
             .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
             .toList();
     }
 
-    public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(Instant.now());
+    // Also runs on a schedule, see RefreshTokenReaper. Never joins a caller's transaction, so each of the reaper's batches
+    // commits (and releases its row locks) on its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long cleanupExpiredTokens() {
+        return refreshTokenReaper.reap();
+    }
+
+    private Optional<RefreshToken> findByToken(String token) {
+        return token == null ? Optional.empty() : refreshTokenStore.findByTokenHash(hash(token));
+    }
+
+    // Only this digest is stored, so a leaked refresh_token table holds no usable tokens
+    static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.tradereads.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.tradereads.model.RefreshToken;
+
+// Storage behind RefreshTokenService, selected with refresh-token.store=database|memory
+public interface RefreshTokenStore {
+    void save(RefreshToken refreshToken);
+
+    // Inserts the token and deletes the user's oldest active tokens so at most maxSessions stay active.
+    // Concurrent calls for the same user are serialized, so parallel logins cannot overshoot the cap.
+    void saveWithinSessionLimit(RefreshToken refreshToken, int maxSessions);
+
+    // Tokens are looked up by their SHA-256 digest, see RefreshTokenService.hash
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    List<RefreshToken> findByUserId(Long userId);
+
+    long countActiveTokensForUser(Long userId, Instant now);
+
+    void delete(RefreshToken refreshToken);
+
+    void deleteByTokenHash(byte[] tokenHash);
+
+    void deleteByUserId(Long userId);
+
+    // Drops expired tokens from any in-process state; the rows themselves are deleted by RefreshTokenReaper
+    void evictExpiredTokens(Instant now);
+}
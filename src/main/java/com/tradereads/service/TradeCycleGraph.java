@@ -0,0 +1,140 @@
+package com.tradereads.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Directed "wants a book from" graph between users, used to find multi-party exchange cycles.
+// An edge u -> v exists while u has a PENDING request for an AVAILABLE book owned by v; parallel requests share the edge.
+// Cycles are found incrementally: adding u -> v only searches for the paths v -> ... -> u that the new edge closes,
+// meeting in the middle by intersecting v's out-neighbours (or their out-neighbours) with u's in-neighbours.
+// Not thread-safe: TradeCycleMatcher confines it to a single thread.
+public class TradeCycleGraph {
+    public record Wish(long requestId, long requesterId, long ownerId, long bookId) {}
+
+    private final int maxCyclesPerWish;
+
+    private final Map<Long, Wish> wishes = new HashMap<>();
+    private final Map<Long, Set<Long>> wishesByBook = new HashMap<>();
+    // requester -> owner -> request ids on that edge
+    private final Map<Long, Map<Long, Set<Long>>> outgoing = new HashMap<>();
+    // owner -> requesters with at least one request on the edge
+    private final Map<Long, Set<Long>> incoming = new HashMap<>();
+
+    public TradeCycleGraph(int maxCyclesPerWish) {
+        this.maxCyclesPerWish = maxCyclesPerWish;
+    }
+
+    // Adds the wish and returns the 3- and 4-way cycles it closes, each as request ids in exchange order starting with this wish.
+    // Every cycle is reported exactly once: by whichever of its wishes is added last.
+    public List<List<Long>> addWish(Wish wish) {
+        long requester = wish.requesterId();
+        long owner = wish.ownerId();
+        if (requester == owner || wishes.putIfAbsent(wish.requestId(), wish) != null) {
+            return List.of();
+        }
+        wishesByBook.computeIfAbsent(wish.bookId(), id -> new HashSet<>(2)).add(wish.requestId());
+        outgoing.computeIfAbsent(requester, id -> new HashMap<>(4)).computeIfAbsent(owner, id -> new HashSet<>(2)).add(wish.requestId());
+        incoming.computeIfAbsent(owner, id -> new HashSet<>(4)).add(requester);
+
+        return findCyclesThrough(wish);
+    }
+
+    public void removeWish(long requestId) {
+        Wish wish = wishes.remove(requestId);
+        if (wish == null) {
+            return;
+        }
+
+        Set<Long> bookWishes = wishesByBook.get(wish.bookId());
+        if (bookWishes != null && bookWishes.remove(requestId) && bookWishes.isEmpty()) {
+            wishesByBook.remove(wish.bookId());
+        }
+
+        Map<Long, Set<Long>> targets = outgoing.get(wish.requesterId());
+        Set<Long> edge = targets == null ? null : targets.get(wish.ownerId());
+        if (edge == null || !edge.remove(requestId) || !edge.isEmpty()) {
+            return;
+        }
+        // Last request on the edge: drop the edge from both adjacency maps
+        targets.remove(wish.ownerId());
+        if (targets.isEmpty()) {
+            outgoing.remove(wish.requesterId());
+        }
+        Set<Long> requesters = incoming.get(wish.ownerId());
+        if (requesters != null && requesters.remove(wish.requesterId()) && requesters.isEmpty()) {
+            incoming.remove(wish.ownerId());
+        }
+    }
+
+    // The book is gone or no longer AVAILABLE: every wish for it leaves the graph
+    public void removeBook(long bookId) {
+        Set<Long> bookWishes = wishesByBook.get(bookId);
+        if (bookWishes != null) {
+            for (Long requestId : List.copyOf(bookWishes)) {
+                removeWish(requestId);
+            }
+        }
+    }
+
+    public boolean containsWish(long requestId) {
+        return wishes.containsKey(requestId);
+    }
+
+    public int wishCount() {
+        return wishes.size();
+    }
+
+    private List<List<Long>> findCyclesThrough(Wish wish) {
+        long u = wish.requesterId();
+        long v = wish.ownerId();
+        Map<Long, Set<Long>> fromV = outgoing.get(v);
+        Set<Long> intoU = incoming.get(u);
+        if (fromV == null || intoU == null) {
+            return List.of();
+        }
+
+        List<List<Long>> cycles = new ArrayList<>();
+
+        // 3-way: u -> v -> w -> u
+        for (Long w : smaller(fromV.keySet(), intoU)) {
+            if (w != u && w != v && fromV.containsKey(w) && intoU.contains(w)) {
+                cycles.add(List.of(wish.requestId(), anyRequest(v, w), anyRequest(w, u)));
+                if (cycles.size() >= maxCyclesPerWish) {
+                    return cycles;
+                }
+            }
+        }
+
+        // 4-way: u -> v -> w -> x -> u
+        for (Long w : fromV.keySet()) {
+            if (w == u || w == v) {
+                continue;
+            }
+            Map<Long, Set<Long>> fromW = outgoing.get(w);
+            if (fromW == null) {
+                continue;
+            }
+            for (Long x : smaller(fromW.keySet(), intoU)) {
+                if (x != u && x != v && x != w.longValue() && fromW.containsKey(x) && intoU.contains(x)) {
+                    cycles.add(List.of(wish.requestId(), anyRequest(v, w), anyRequest(w, x), anyRequest(x, u)));
+                    if (cycles.size() >= maxCyclesPerWish) {
+                        return cycles;
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private Long anyRequest(long from, long to) {
+        return outgoing.get(from).get(to).iterator().next();
+    }
+
+    private static Set<Long> smaller(Set<Long> a, Set<Long> b) {
+        return a.size() <= b.size() ? a : b;
+    }
+}
@@ -0,0 +1,213 @@
+package com.tradereads.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.TradeCycle;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.TradeRequest.TradeStatus;
+import com.tradereads.repository.TradeCycleRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.TradeRequestRepository.OpenWish;
+
+import jakarta.annotation.PreDestroy;
+
+// Finds 3- and 4-way exchanges among pending trade requests and stores them as PROPOSED TradeCycles.
+// The wish graph is built once on startup and then kept current from TradeRequestEvents; all graph work runs on
+// one background thread, so trade requests never wait on matching. Its queue is bounded: when events arrive faster than
+// they are matched, the overflow is dropped and the graph is rebuilt from the database instead.
+@Service
+public class TradeCycleMatcher {
+    private static final Logger log = LoggerFactory.getLogger(TradeCycleMatcher.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final TradeRequestRepository tradeRequestRepository;
+    private final TradeCycleRepository tradeCycleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCyclesPerWish;
+    private final ThreadPoolExecutor worker;
+    // Only touched on the worker thread; replaced whole on a reload
+    private TradeCycleGraph graph;
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+
+    private final AtomicLong proposedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public TradeCycleMatcher(
+        TradeRequestRepository tradeRequestRepository,
+        TradeCycleRepository tradeCycleRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${trades.cycles.enabled:true}") boolean enabled,
+        @Value("${trades.cycles.max-per-wish:10}") int maxCyclesPerWish,
+        @Value("${trades.cycles.queue-capacity:10000}") int queueCapacity) {
+        this.tradeRequestRepository = tradeRequestRepository;
+        this.tradeCycleRepository = tradeCycleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxCyclesPerWish = maxCyclesPerWish;
+        this.graph = new TradeCycleGraph(maxCyclesPerWish);
+        this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+            new CustomizableThreadFactory("trade-cycles-"), (task, executor) -> overflow());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            submit(this::load);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeRequestEvent(TradeRequestEvent event) {
+        if (enabled) {
+            submit(() -> apply(event));
+        }
+    }
+
+    // Runs inside TradeRequestService's transaction whenever a request stops being PENDING
+    public void requestClosed(Long tradeRequestId) {
+        tradeCycleRepository.expireContaining(tradeRequestId);
+    }
+
+    public void requestsClosed(Collection<Long> tradeRequestIds) {
+        tradeCycleRepository.expireContainingAny(tradeRequestIds);
+    }
+
+    public List<TradeCycle> getProposedCycles(Long userId) {
+        return tradeCycleRepository.findProposedForUser(userId);
+    }
+
+    public long getProposedCount() {
+        return proposedCount.get();
+    }
+
+    public int getQueueDepth() {
+        return worker.getQueue().size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void load() {
+        long afterId = 0;
+        int loaded = 0;
+        List<OpenWish> batch;
+        do {
+            batch = tradeRequestRepository.findOpenWishes(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE));
+            for (OpenWish wish : batch) {
+                propose(graph.addWish(new TradeCycleGraph.Wish(wish.getId(), wish.getRequesterId(), wish.getOwnerId(), wish.getRequestedBookId())));
+                afterId = wish.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Trade cycle graph loaded with {} open wishes", loaded);
+    }
+
+    private void apply(TradeRequestEvent event) {
+        switch (event.type()) {
+            case CREATED -> propose(graph.addWish(new TradeCycleGraph.Wish(
+                event.tradeRequestId(), event.requesterId(), event.ownerId(), event.requestedBookId())));
+            case ACCEPTED -> {
+                // Both books are TRADED now, so nobody else's wish for them can be met
+                graph.removeWish(event.tradeRequestId());
+                graph.removeBook(event.requestedBookId());
+                if (event.offeredBookId() != null) {
+                    graph.removeBook(event.offeredBookId());
+                }
+            }
+            case DECLINED, CANCELLED, DELETED -> graph.removeWish(event.tradeRequestId());
+            case COMPLETED -> { }
+        }
+    }
+
+    private void propose(List<List<Long>> cycles) {
+        for (List<Long> cycle : cycles) {
+            List<Long> stale = transactionTemplate.execute(status -> proposeCycle(cycle));
+            // Book edits and deletes are not streamed to the graph; drop those wishes once a proposal trips over them
+            if (stale != null) {
+                stale.forEach(graph::removeWish);
+            }
+        }
+    }
+
+    // Re-checks the cycle against the DB and saves it; returns the member requests that are no longer open
+    private List<Long> proposeCycle(List<Long> cycle) {
+        Map<Long, TradeRequest> byId = tradeRequestRepository.findAllById(cycle).stream()
+            .collect(Collectors.toMap(TradeRequest::getId, Function.identity()));
+
+        List<Long> stale = new ArrayList<>();
+        List<TradeRequest> members = new ArrayList<>(cycle.size());
+        for (Long id : cycle) {
+            TradeRequest request = byId.get(id);
+            if (request == null || request.getStatus() != TradeStatus.PENDING || request.getRequestedBook().getStatus() != BookStatus.AVAILABLE) {
+                stale.add(id);
+            } else {
+                members.add(request);
+            }
+        }
+        if (!stale.isEmpty()) {
+            return stale;
+        }
+
+        String signature = cycle.stream().sorted().map(String::valueOf).collect(Collectors.joining("-"));
+        if (!tradeCycleRepository.existsBySignature(signature)) {
+            tradeCycleRepository.save(new TradeCycle(signature, members));
+            proposedCount.incrementAndGet();
+        }
+        return stale;
+    }
+
+    // The dropped event's change is already committed, so a reload from the database covers it
+    private void overflow() {
+        droppedCount.incrementAndGet();
+        if (reloadPending.compareAndSet(false, true)) {
+            log.warn("Trade cycle queue is full, dropping events and reloading the wish graph");
+        }
+    }
+
+    private void submit(Runnable task) {
+        worker.execute(() -> {
+            try {
+                if (reloadPending.compareAndSet(true, false)) {
+                    // Everything still queued was committed before the reload reads the database, so it is superseded too
+                    worker.getQueue().clear();
+                    graph = new TradeCycleGraph(maxCyclesPerWish);
+                    load();
+                } else {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Trade cycle matching failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdown();
+    }
+}
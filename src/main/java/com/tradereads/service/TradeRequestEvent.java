@@ -0,0 +1,41 @@
+package com.tradereads.service;
+
+import java.time.Instant;
+
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.TradeRequest.TradeStatus;
+
+// Published by TradeRequestService on every trade request state change.
+// Carries ids only, so it stays valid (and cheap to serialize) after the transaction that produced it has ended.
+public record TradeRequestEvent(
+    Type type,
+    Long tradeRequestId,
+    Long requesterId,
+    Long ownerId,
+    Long requestedBookId,
+    Long offeredBookId,
+    TradeStatus status,
+    Instant occurredAt) {
+
+    public enum Type {
+        CREATED,
+        ACCEPTED,
+        DECLINED,
+        CANCELLED,
+        COMPLETED,
+        DELETED
+    }
+
+    static TradeRequestEvent of(Type type, TradeRequest tradeRequest) {
+        return new TradeRequestEvent(
+            type,
+            tradeRequest.getId(),
+            tradeRequest.getRequester().getId(),
+            tradeRequest.getOwner().getId(),
+            tradeRequest.getRequestedBook().getId(),
+            tradeRequest.getOfferedBook() != null ? tradeRequest.getOfferedBook().getId() : null,
+            tradeRequest.getStatus(),
+            Instant.now()
+        );
+    }
+}
@@ -1,34 +1,76 @@
 package com.tradereads.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.tradereads.model.Book;
+import com.tradereads.model.TradeCycle;
 import com.tradereads.model.TradeRequest;
 import com.tradereads.model.User;
+import com.tradereads.model.UserTradeCounters;
 import com.tradereads.model.Book.BookStatus;
 import com.tradereads.model.Book.ListingType;
 import com.tradereads.model.TradeRequest.TradeStatus;
 import com.tradereads.repository.TradeRequestRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
 public class TradeRequestService {
+    private static final Logger log = LoggerFactory.getLogger(TradeRequestService.class);
+
     private final TradeRequestRepository tradeRequestRepository;
     private final BookService bookService;
     private final UserService userService;
-
-    public TradeRequestService(TradeRequestRepository tradeRequestRepository, BookService bookService, UserService userService) {
+    private final PendingTradeCounters pendingTradeCounters;
+    private final TradeCycleMatcher tradeCycleMatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+
+    public TradeRequestService(
+        TradeRequestRepository tradeRequestRepository,
+        BookService bookService,
+        UserService userService,
+        PendingTradeCounters pendingTradeCounters,
+        TradeCycleMatcher tradeCycleMatcher,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${trades.conflict-retry.max-attempts:3}") int maxAttempts) {
         this.tradeRequestRepository = tradeRequestRepository;
         this.bookService = bookService;
         this.userService = userService;
+        this.pendingTradeCounters = pendingTradeCounters;
+        this.tradeCycleMatcher = tradeCycleMatcher;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(maxAttempts, 1);
     }
 
     public TradeRequest createTradeRequest(Long requesterId, Long requestedBookId, Long offeredBookId, String message) {
+        return timed(TradeRequestEvent.Type.CREATED, () -> create(requesterId, requestedBookId, offeredBookId, message));
+    }
+
+    private TradeRequest create(Long requesterId, Long requestedBookId, Long offeredBookId, String message) {
         User requester = userService.getUserById(requesterId).orElseThrow(() -> new IllegalArgumentException("Requester not found"));
         Book requestedBook = bookService.getBookById(requestedBookId).orElseThrow(() -> new IllegalArgumentException("Requested book not found"));
         
@@ -64,7 +106,7 @@ public class TradeRequestService {
         }
 
         TradeRequest tradeRequest = new TradeRequest(requester, owner, requestedBook, offeredBook, message);
-        return tradeRequestRepository.save(tradeRequest);
+        return recordTransition(TradeRequestEvent.Type.CREATED, tradeRequestRepository.save(tradeRequest));
     }
 
     public List<TradeRequest> getOutgoingTradeRequests(Long userId) {
@@ -84,7 +126,7 @@ public class TradeRequestService {
     }
 
     public Optional<TradeRequest> getTradeRequestById(Long id, Long userId) {
-        Optional<TradeRequest> tradeRequest = tradeRequestRepository.findById(id);
+        Optional<TradeRequest> tradeRequest = tradeRequestRepository.findWithPartiesById(id);
         if (tradeRequest.isPresent()) {
             TradeRequest tr = tradeRequest.get();
             if (tr.getRequester().getId().equals(userId) || tr.getOwner().getId().equals(userId)) {
@@ -94,91 +136,201 @@ public class TradeRequestService {
         return Optional.empty();
     }
 
+    // State changes below run each attempt in its own transaction (see inRetryingTransaction), so they opt out of the class-level one
+    @Transactional(Transactional.TxType.SUPPORTS)
     public TradeRequest acceptTradeRequest(Long tradeRequestId, Long ownerId) {
-        TradeRequest tradeRequest = tradeRequestRepository.findByIdAndOwnerId(tradeRequestId, ownerId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
-
-        if (tradeRequest.getStatus() != TradeStatus.PENDING) {
-            throw new IllegalArgumentException("Trade request cannot be accepted");
-        }
-
-        if (tradeRequest.getRequestedBook().getStatus() != BookStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Requested book is no longe available");
-        }
-
-        if (tradeRequest.getOfferedBook() != null && tradeRequest.getOfferedBook().getStatus() != BookStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Offered book is no longe available");
-        }
-
-        tradeRequest.setStatus(TradeStatus.ACCEPTED);
-
-        // Mark books as traded
-        tradeRequest.getRequestedBook().setStatus(BookStatus.TRADED);
-        if (tradeRequest.getOfferedBook() != null) {
-            tradeRequest.getOfferedBook().setStatus(BookStatus.TRADED);
-        }
-
-        bookService.updateBook(tradeRequest.getRequestedBook());
-        if (tradeRequest.getOfferedBook() != null) {
-            bookService.updateBook(tradeRequest.getOfferedBook());
-        }
-
-        return tradeRequestRepository.save(tradeRequest);
+        return inRetryingTransaction(TradeRequestEvent.Type.ACCEPTED, () -> accept(tradeRequestId, ownerId));
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public TradeRequest declineTradeRequest(Long tradeRequestId, Long ownerId) {
-        TradeRequest tradeRequest = tradeRequestRepository.findByIdAndOwnerId(tradeRequestId, ownerId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
+        return inRetryingTransaction(TradeRequestEvent.Type.DECLINED, () -> {
+            TradeRequest tradeRequest = tradeRequestRepository.findByIdAndOwnerId(tradeRequestId, ownerId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
 
-        if (tradeRequest.getStatus() != TradeStatus.PENDING) {
-            throw new IllegalArgumentException("Trade request cannot be declined");
-        }
+            if (tradeRequest.getStatus() != TradeStatus.PENDING) {
+                throw new IllegalArgumentException("Trade request cannot be declined");
+            }
 
-        tradeRequest.setStatus(TradeStatus.DECLINED);
-        return tradeRequestRepository.save(tradeRequest);
+            tradeRequest.setStatus(TradeStatus.DECLINED);
+            return recordTransition(TradeRequestEvent.Type.DECLINED, tradeRequestRepository.save(tradeRequest));
+        });
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public TradeRequest cancelTradeRequest(Long tradeRequestId, Long userId) {
-        TradeRequest tradeRequest = getTradeRequestById(tradeRequestId, userId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
+        return inRetryingTransaction(TradeRequestEvent.Type.CANCELLED, () -> {
+            TradeRequest tradeRequest = getTradeRequestById(tradeRequestId, userId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
 
-        if (tradeRequest.getStatus() != TradeStatus.PENDING) {
-            throw new IllegalArgumentException("Trade request cannot be cancelled");
-        }
+            if (tradeRequest.getStatus() != TradeStatus.PENDING) {
+                throw new IllegalArgumentException("Trade request cannot be cancelled");
+            }
 
-        tradeRequest.setStatus(TradeStatus.CANCELLED);
-        return tradeRequestRepository.save(tradeRequest);
+            tradeRequest.setStatus(TradeStatus.CANCELLED);
+            return recordTransition(TradeRequestEvent.Type.CANCELLED, tradeRequestRepository.save(tradeRequest));
+        });
     }
 
     // Mark trade as completed (can be done by either party)
+    @Transactional(Transactional.TxType.SUPPORTS)
     public TradeRequest completeTradeRequest(Long tradeRequestId, Long userId) {
-        TradeRequest tradeRequest = getTradeRequestById(tradeRequestId, userId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
+        return inRetryingTransaction(TradeRequestEvent.Type.COMPLETED, () -> {
+            TradeRequest tradeRequest = getTradeRequestById(tradeRequestId, userId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
 
-        if (tradeRequest.getStatus() != TradeStatus.ACCEPTED) {
-            throw new IllegalArgumentException("Trade request must be accepted before completion");
-        }
+            if (tradeRequest.getStatus() != TradeStatus.ACCEPTED) {
+                throw new IllegalArgumentException("Trade request must be accepted before completion");
+            }
+
+            tradeRequest.setStatus(TradeStatus.COMPLETED);
+            return recordTransition(TradeRequestEvent.Type.COMPLETED, tradeRequestRepository.save(tradeRequest));
+        });
+    }
 
-        tradeRequest.setStatus(TradeStatus.COMPLETED);
-        return tradeRequestRepository.save(tradeRequest);
+    // Proposed 3-/4-way exchanges the user is part of, see TradeCycleMatcher
+    public List<TradeCycle> getProposedTradeCycles(Long userId) {
+        return tradeCycleMatcher.getProposedCycles(userId);
     }
 
     public List<TradeRequest> getTradeRequestsForBook(Long bookId) {
         return tradeRequestRepository.findByRequestedBookIdOrderByCreatedAtDesc(bookId);
     }
 
+    // Primary-key read of the materialized counters, no scan of trade_requests
+    public UserTradeCounters getPendingRequestCounts(Long userId) {
+        return pendingTradeCounters.getCounts(userId);
+    }
+
     public Long getPendingIncomingRequestsCount(Long userId) {
-        return tradeRequestRepository.countPendingRequestForUser(userId);
+        return getPendingRequestCounts(userId).getPendingIncoming();
     }
 
     public Long getPendingOutgoingRequestsCount(Long userId) {
-        return tradeRequestRepository.countPendingRequestsByUser(userId);
+        return getPendingRequestCounts(userId).getPendingOutgoing();
     }
 
     // Delete a trade request (only if pending by requester)
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void deleteTradeRequest(Long tradeRequestId, Long requesterId) {
-        TradeRequest tradeRequest = tradeRequestRepository.findByIdAndRequesterId(tradeRequestId, requesterId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
+        inRetryingTransaction(TradeRequestEvent.Type.DELETED, () -> {
+            TradeRequest tradeRequest = tradeRequestRepository.findByIdAndRequesterId(tradeRequestId, requesterId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
+
+            if (tradeRequest.getStatus() != TradeStatus.PENDING) {
+                throw new IllegalArgumentException("Can only delete pending trade requests");
+            }
+
+            // Before the delete: expiring its proposed cycles needs the trade_cycle_requests rows the delete cascades away
+            recordTransition(TradeRequestEvent.Type.DELETED, tradeRequest);
+            tradeRequestRepository.delete(tradeRequest);
+            return null;
+        });
+    }
+
+    // The status checks on the loaded entities are only a fast path. The conditional updates decide races:
+    // whichever transaction flips a row first wins, the other one sees 0 rows and rolls back everything it did.
+    private TradeRequest accept(Long tradeRequestId, Long ownerId) {
+        TradeRequest tradeRequest = tradeRequestRepository.findByIdAndOwnerId(tradeRequestId, ownerId).orElseThrow(() -> new IllegalArgumentException("Trade request not found or not authorized"));
 
         if (tradeRequest.getStatus() != TradeStatus.PENDING) {
-            throw new IllegalArgumentException("Can only delete pending trade requests");
+            throw new IllegalArgumentException("Trade request cannot be accepted");
+        }
+
+        Long requestedBookId = tradeRequest.getRequestedBook().getId();
+        Long offeredBookId = tradeRequest.getOfferedBook() != null ? tradeRequest.getOfferedBook().getId() : null;
+
+        // Books first, in id order: they are what competing accepts fight over, and taking them before any
+        // trade_requests row means the winner can lock the losers' requests below without deadlocking on them
+        List<Long> bookIds = offeredBookId != null ? List.of(Math.min(requestedBookId, offeredBookId), Math.max(requestedBookId, offeredBookId)) : List.of(requestedBookId);
+        for (Long bookId : bookIds) {
+            if (!bookService.transitionStatus(bookId, BookStatus.AVAILABLE, BookStatus.TRADED)) {
+                throw new IllegalArgumentException(bookId.equals(requestedBookId) ? "Requested book is no longer available" : "Offered book is no longer available");
+            }
+        }
+
+        if (tradeRequestRepository.transitionStatus(List.of(tradeRequestId), TradeStatus.PENDING, TradeStatus.ACCEPTED) == 0) {
+            throw new IllegalArgumentException("Trade request cannot be accepted");
+        }
+
+        // Every other pending request for either book can never be accepted now: decline them all in one statement
+        List<TradeRequest> superseded = tradeRequestRepository.findPendingForBooks(bookIds, tradeRequestId);
+        if (!superseded.isEmpty()) {
+            tradeRequestRepository.transitionStatus(superseded.stream().map(TradeRequest::getId).toList(), TradeStatus.PENDING, TradeStatus.DECLINED);
+        }
+
+        List<TradeRequest> closed = new ArrayList<>(superseded.size() + 1);
+        closed.add(tradeRequest);
+        closed.addAll(superseded);
+        pendingTradeCounters.requestsClosed(closed);
+        tradeCycleMatcher.requestsClosed(closed.stream().map(TradeRequest::getId).toList());
+
+        // The bulk updates detached these entities, so the new statuses are only mirrored for the events
+        tradeRequest.setStatus(TradeStatus.ACCEPTED);
+        eventPublisher.publishEvent(TradeRequestEvent.of(TradeRequestEvent.Type.ACCEPTED, tradeRequest));
+        for (TradeRequest declined : superseded) {
+            declined.setStatus(TradeStatus.DECLINED);
+            eventPublisher.publishEvent(TradeRequestEvent.of(TradeRequestEvent.Type.DECLINED, declined));
+        }
+        return tradeRequestRepository.findWithPartiesById(tradeRequestId).orElseThrow();
+    }
+
+    // One transaction per attempt; an attempt that lost a race on a row (stale @Version, lock timeout, deadlock) is retried
+    // after a short jittered pause. Business conflicts such as "no longer available" are IllegalArgumentExceptions and final.
+    private <T> T inRetryingTransaction(TradeRequestEvent.Type type, Supplier<T> attempt) {
+        return timed(type, () -> {
+            for (int tries = 1; ; tries++) {
+                try {
+                    return transactionTemplate.execute(status -> attempt.get());
+                } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                    if (tries >= maxAttempts) {
+                        meterRegistry.counter("trades.transition.conflicts", "type", tagValue(type), "result", "exhausted").increment();
+                        log.warn("Trade request update still conflicting after {} attempts", tries, e);
+                        throw new IllegalArgumentException("Trade request was changed at the same time, please try again");
+                    }
+                    meterRegistry.counter("trades.transition.conflicts", "type", tagValue(type), "result", "retried").increment();
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * tries);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    // trades.transitions{type, outcome}: the caller's view, so retries and their pauses are included.
+    // "rejected" is a business refusal (IllegalArgumentException), "error" anything unexpected.
+    private <T> T timed(TradeRequestEvent.Type type, Supplier<T> transition) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = transition.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("trades.transitions", "type", tagValue(type), "outcome", outcome));
+        }
+    }
+
+    private static String tagValue(TradeRequestEvent.Type type) {
+        return type.name().toLowerCase();
+    }
+
+    // Updates the pending counters and proposed cycles in this transaction; event listeners (e.g. the SSE broadcaster) only act after commit
+    private TradeRequest recordTransition(TradeRequestEvent.Type type, TradeRequest tradeRequest) {
+        Long requesterId = tradeRequest.getRequester().getId();
+        Long ownerId = tradeRequest.getOwner().getId();
+        switch (type) {
+            case CREATED -> pendingTradeCounters.requestOpened(requesterId, ownerId);
+            case ACCEPTED, DECLINED, CANCELLED, DELETED -> {
+                pendingTradeCounters.requestClosed(requesterId, ownerId);
+                tradeCycleMatcher.requestClosed(tradeRequest.getId());
+            }
+            case COMPLETED -> { } // ACCEPTED -> COMPLETED does not touch pending counts
         }
 
-        tradeRequestRepository.delete(tradeRequest);
+        eventPublisher.publishEvent(TradeRequestEvent.of(type, tradeRequest));
+        return tradeRequest;
     }
 }
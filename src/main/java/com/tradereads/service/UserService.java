@@ -3,20 +3,21 @@ package com.tradereads.service;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.tradereads.model.User;
 import com.tradereads.repository.UserRepository;
+import com.tradereads.repository.UserRepository.IdentifierCollisions;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
     }
 
     public List<User> getAllUsers() {
@@ -32,15 +33,7 @@ public class UserService {
             throw new IllegalArgumentException("Password must not be less than 8 characters and more than 16 characters");
         }
 
-        if (userRepository.findByUsername(username).isPresent()) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-        if (userRepository.findByEmail(email).isPresent()) {
-            throw new IllegalArgumentException("Email already registered to another account");
-        }
-        if (userRepository.findByPhoneNumber(phoneNumber).isPresent()) {
-            throw new IllegalArgumentException("Phone number already connected to another account");
-        }
+        rejectTakenIdentifiers(username, email, phoneNumber);
 
         // Provide default role if not provided
         if (role == null || role.trim().isEmpty()) {
@@ -49,18 +42,38 @@ public class UserService {
 
         User user = new User();
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingService.encode(password));
         user.setUserRole(role);
         user.setEmail(email);
         user.setPhoneNumber(phoneNumber);
-        return userRepository.save(user);
+
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration; the unique constraints caught it, so report which one
+            rejectTakenIdentifiers(username, email, phoneNumber);
+            throw e;
+        }
+    }
+
+    private void rejectTakenIdentifiers(String username, String email, String phoneNumber) {
+        IdentifierCollisions collisions = userRepository.findIdentifierCollisions(username, email, phoneNumber);
+        if (collisions.usernameTaken()) {
+            throw new IllegalArgumentException("Username already exists");
+        }
+        if (collisions.emailTaken()) {
+            throw new IllegalArgumentException("Email already registered to another account");
+        }
+        if (collisions.phoneNumberTaken()) {
+            throw new IllegalArgumentException("Phone number already connected to another account");
+        }
     }
 
     public Optional<User> authenticateUser(String username, String password) {
         Optional<User> userOptional = userRepository.findByUsername(username);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (passwordHashingService.matches(password, user.getPassword())) {
                 return userOptional;
             }
         }
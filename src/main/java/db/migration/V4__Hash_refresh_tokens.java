@@ -0,0 +1,58 @@
+package db.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Replaces the plaintext refresh_token.token column with a 32-byte SHA-256 digest.
+// Written in Java so existing sessions keep working: their tokens are hashed here the same way
+// RefreshTokenService hashes incoming tokens, which SQL cannot do portably across Postgres and H2.
+public class V4__Hash_refresh_tokens extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table refresh_token add column token_hash bytea");
+        }
+
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("update refresh_token set token_hash = ? where id = ?")) {
+            // Streamed in pages rather than read whole. PostgreSQL only honours the fetch size with autocommit off, which
+            // holds here because Flyway runs the migration in a transaction.
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("select id, token from refresh_token")) {
+                int pending = 0;
+                while (rows.next()) {
+                    update.setBytes(1, sha256.digest(rows.getString("token").getBytes(StandardCharsets.UTF_8)));
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table refresh_token alter column token_hash set not null");
+            statement.execute("alter table refresh_token add constraint ck_refresh_token_token_hash_length check (octet_length(token_hash) = 32)");
+            statement.execute("alter table refresh_token add constraint uk_refresh_token_token_hash unique (token_hash)");
+            // Also drops the column's unique constraint, whose name differs between V1 and ddl-auto=update databases
+            statement.execute("alter table refresh_token drop column token");
+        }
+    }
+}
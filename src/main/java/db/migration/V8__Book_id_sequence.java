@@ -0,0 +1,33 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// books.id moves from an identity column to books_seq, which Hibernate allocates from in blocks (allocationSize on Book.id)
+// so book inserts can be JDBC-batched. Hibernate's pooled optimizer hands out (value - increment, value], so starting at
+// max(id) + increment makes the first new id max(id) + 1. The identity default is dropped: an insert without an id now fails
+// instead of taking an id the sequence will hand out later. In Java because the start value is data-dependent.
+public class V8__Book_id_sequence extends BaseJavaMigration {
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from books")) {
+            rows.next();
+            maxId = rows.getLong(1);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create sequence books_seq start with " + (maxId + INCREMENT) + " increment by " + INCREMENT);
+            statement.execute("alter table books alter column id drop identity");
+        }
+    }
+}
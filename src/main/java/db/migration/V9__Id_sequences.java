@@ -0,0 +1,36 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// The remaining identity ids move to sequences the same way books.id did in V8: each <table>_seq starts at
+// max(id) + increment and the identity default is dropped. The increment set here is only the starting point;
+// IdSequenceIncrements (a repeatable migration) re-applies persistence.id-allocation-size to every sequence.
+public class V9__Id_sequences extends BaseJavaMigration {
+    private static final int INCREMENT = 50;
+    private static final List<String> TABLES = List.of("users", "trade_requests", "refresh_token", "trade_cycles");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        for (String table : TABLES) {
+            long maxId;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                rows.next();
+                maxId = rows.getLong(1);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create sequence " + table + "_seq start with " + (maxId + INCREMENT) + " increment by " + INCREMENT);
+                statement.execute("alter table " + table + " alter column id drop identity");
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Keyset indexes for the filtered catalog pages: equality filter first, then id for the ORDER BY id DESC range.
+-- (genre, id) and (listing_type, id) also serve findByGenre / findByListingType, so the single-column ones go.
+
+create index if not exists idx_books_genre_id on books (genre, id);
+create index if not exists idx_books_status_id on books (status, id);
+create index if not exists idx_books_listing_type_id on books (listing_type, id);
+
+drop index if exists idx_books_genre;
+drop index if exists idx_books_listing_type;
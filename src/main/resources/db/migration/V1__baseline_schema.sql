@@ -0,0 +1,60 @@
+-- Schema as previously generated by hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate), so this only runs on empty ones.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(20) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    phone_number varchar(255),
+    user_role varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email),
+    constraint uk_users_phone_number unique (phone_number)
+);
+
+create table books (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    author varchar(255),
+    condition varchar(255),
+    description varchar(255),
+    genre varchar(255),
+    isbn varchar(255),
+    listing_type varchar(255) not null check (listing_type in ('GIVEAWAY','TRADE')),
+    status varchar(255) not null check (status in ('AVAILABLE','TRADED','PENDING','GAVEDAWAY')),
+    title varchar(255),
+    primary key (id),
+    constraint uk_books_isbn_user unique (isbn, user_id),
+    constraint fk_books_owner foreign key (user_id) references users
+);
+
+create table trade_requests (
+    id bigint generated by default as identity,
+    requester_id bigint not null,
+    owner_id bigint not null,
+    requested_book_id bigint not null,
+    offered_book_id bigint,
+    status varchar(255) not null check (status in ('PENDING','ACCEPTED','DECLINED','CANCELLED','COMPLETED')),
+    message varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint fk_trade_requests_requester foreign key (requester_id) references users,
+    constraint fk_trade_requests_owner foreign key (owner_id) references users,
+    constraint fk_trade_requests_requested_book foreign key (requested_book_id) references books,
+    constraint fk_trade_requests_offered_book foreign key (offered_book_id) references books
+);
+
+create table refresh_token (
+    id bigint generated by default as identity,
+    token varchar(255) not null,
+    user_id bigint not null,
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    device_info varchar(255),
+    ip_address varchar(255),
+    primary key (id),
+    constraint uk_refresh_token_token unique (token)
+);
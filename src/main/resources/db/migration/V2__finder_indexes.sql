@@ -0,0 +1,16 @@
+-- Composite indexes matching the derived finders in BookRepository and TradeRequestRepository.
+-- Column order: equality filters first, then the ORDER BY column.
+
+create index if not exists idx_books_owner_status_listing on books (user_id, status, listing_type);
+create index if not exists idx_books_owner_listing on books (user_id, listing_type);
+create index if not exists idx_books_owner_genre on books (user_id, genre);
+create index if not exists idx_books_status_listing on books (status, listing_type);
+create index if not exists idx_books_listing_type on books (listing_type);
+create index if not exists idx_books_genre on books (genre);
+
+create index if not exists idx_trade_requests_requester_created on trade_requests (requester_id, created_at);
+create index if not exists idx_trade_requests_requester_status_created on trade_requests (requester_id, status, created_at);
+create index if not exists idx_trade_requests_owner_created on trade_requests (owner_id, created_at);
+create index if not exists idx_trade_requests_owner_status_created on trade_requests (owner_id, status, created_at);
+create index if not exists idx_trade_requests_requested_book_created on trade_requests (requested_book_id, created_at);
+create index if not exists idx_trade_requests_offered_book on trade_requests (offered_book_id);
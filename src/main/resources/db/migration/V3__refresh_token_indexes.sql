@@ -0,0 +1,3 @@
+-- Serves the expired-token reaper and the per-user session lookups/counts
+create index if not exists idx_refresh_token_expires_at on refresh_token (expires_at);
+create index if not exists idx_refresh_token_user_expires on refresh_token (user_id, expires_at);
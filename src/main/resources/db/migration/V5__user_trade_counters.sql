@@ -0,0 +1,16 @@
+-- Materialized pending trade request counts per user, maintained by PendingTradeCounters
+-- and repaired by PendingTradeCounterReconciler. Replaces two COUNT(*) scans per /api/trades/counts call.
+
+create table user_trade_counters (
+    user_id bigint not null,
+    pending_incoming bigint not null default 0,
+    pending_outgoing bigint not null default 0,
+    primary key (user_id),
+    constraint fk_user_trade_counters_user foreign key (user_id) references users (id) on delete cascade
+);
+
+insert into user_trade_counters (user_id, pending_incoming, pending_outgoing)
+select u.id,
+       (select count(*) from trade_requests t where t.owner_id = u.id and t.status = 'PENDING'),
+       (select count(*) from trade_requests t where t.requester_id = u.id and t.status = 'PENDING')
+from users u;
@@ -0,0 +1,22 @@
+-- Multi-party exchange proposals found by TradeCycleMatcher.
+-- A cycle links 3 or 4 existing PENDING trade requests, in exchange order (member_order).
+
+create table trade_cycles (
+    id bigint generated by default as identity,
+    status varchar(255) not null check (status in ('PROPOSED','EXPIRED')),
+    signature varchar(100) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_trade_cycles_signature unique (signature)
+);
+
+create table trade_cycle_requests (
+    cycle_id bigint not null,
+    trade_request_id bigint not null,
+    member_order integer not null,
+    primary key (cycle_id, member_order),
+    constraint fk_trade_cycle_requests_cycle foreign key (cycle_id) references trade_cycles (id) on delete cascade,
+    constraint fk_trade_cycle_requests_request foreign key (trade_request_id) references trade_requests (id) on delete cascade
+);
+
+create index if not exists idx_trade_cycle_requests_request on trade_cycle_requests (trade_request_id);
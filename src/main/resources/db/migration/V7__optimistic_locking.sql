@@ -0,0 +1,5 @@
+-- Optimistic locking for the rows trade acceptance races on (@Version on Book and TradeRequest).
+-- Existing rows start at version 0; conditional status updates bump it by hand.
+
+alter table books add column version bigint not null default 0;
+alter table trade_requests add column version bigint not null default 0;
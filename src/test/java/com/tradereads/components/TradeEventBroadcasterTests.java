@@ -0,0 +1,90 @@
+package com.tradereads.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tradereads.model.TradeRequest.TradeStatus;
+import com.tradereads.service.TradeRequestEvent;
+
+@SpringBootTest(properties = "trades.events.outbox-capacity=4")
+class TradeEventBroadcasterTests {
+    private static final long STALLED_USER = 900_001L;
+    private static final long READING_USER = 900_002L;
+    private static final long OTHER_USER = 900_003L;
+
+    @Autowired
+    private TradeEventBroadcaster broadcaster;
+
+    // Records what it is sent; optionally never returns from a send, like a client whose socket buffer is full
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            super(60_000L);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().forEach(part -> sent.add(String.valueOf(part.getData())));
+        }
+    }
+
+    @Test
+    void stalledClientDoesNotHoldUpOtherUsers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter reading = new RecordingEmitter(null);
+        try {
+            broadcaster.subscribe(STALLED_USER, stalled);
+            broadcaster.subscribe(READING_USER, reading);
+            long overflowedBefore = broadcaster.getOverflowedConnectionCount();
+
+            // More events than the stalled stream's outbox holds while its writer is stuck on the first send
+            for (long id = 1; id <= 10; id++) {
+                broadcaster.onTradeRequestEvent(event(id, STALLED_USER));
+            }
+            broadcaster.onTradeRequestEvent(event(11L, READING_USER));
+
+            await(() -> reading.sent.stream().anyMatch(data -> data.contains("event:trade")));
+            await(() -> broadcaster.getOverflowedConnectionCount() > overflowedBefore);
+            assertThat(broadcaster.getConnectionCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            reading.complete();
+        }
+    }
+
+    private static TradeRequestEvent event(long tradeRequestId, long requesterId) {
+        return new TradeRequestEvent(TradeRequestEvent.Type.CREATED, tradeRequestId, requesterId, OTHER_USER, 1L, null,
+            TradeStatus.PENDING, Instant.now());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!condition.getAsBoolean() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
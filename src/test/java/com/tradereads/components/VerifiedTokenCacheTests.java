@@ -0,0 +1,83 @@
+package com.tradereads.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.service.JwtService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Own secret, so the rotations below only affect this test's context
+@SpringBootTest(properties = "jwt.secret=" + VerifiedTokenCacheTests.SECRET)
+class VerifiedTokenCacheTests {
+    static final String SECRET = "verified-token-cache-tests-secret-0123456789012345678901234567890123";
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @AfterEach
+    void restoreKey() {
+        jwtService.rotateSigningKey(SECRET);
+    }
+
+    @Test
+    void rotatingTheSigningKeyDropsTokensVerifiedWithTheOldKey() {
+        String oldToken = jwtService.generateToken("rotation", 1L, "USER");
+        assertThat(verifiedTokenCache.verify(oldToken)).isPresent();
+        assertThat(verifiedTokenCache.verify(oldToken)).isPresent();
+        assertThat(verifiedTokenCache.getStats().hitCount()).isPositive();
+
+        jwtService.rotateSigningKey("verified-token-cache-tests-rotated-0123456789012345678901234567890123");
+
+        assertThat(verifiedTokenCache.verify(oldToken)).isEmpty();
+        String newToken = jwtService.generateToken("rotation", 1L, "USER");
+        assertThat(verifiedTokenCache.verify(newToken)).map(JwtService.VerifiedClaims::subject).contains("rotation");
+    }
+
+    @Test
+    void revokingAUserRejectsTheirTokensIssuedSoFar() {
+        String revoked = jwtService.generateToken("logout-all", 2L, "USER");
+        String otherUser = jwtService.generateToken("bystander", 3L, "USER");
+        assertThat(verifiedTokenCache.verify(revoked)).isPresent();
+
+        verifiedTokenCache.revokeUserTokens(2L);
+
+        assertThat(verifiedTokenCache.verify(revoked)).isEmpty();
+        assertThat(verifiedTokenCache.verify(otherUser)).isPresent();
+        // A login after the logout-all gets a token that works
+        String later = Jwts.builder()
+            .subject("logout-all")
+            .claim("userId", 2L)
+            .claim("role", "USER")
+            .issuedAt(Date.from(Instant.now().plusSeconds(1)))
+            .expiration(Date.from(Instant.now().plusSeconds(60)))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+        assertThat(verifiedTokenCache.verify(later)).isPresent();
+    }
+
+    @Test
+    void signedTokenWithoutExpirationIsRejected() {
+        String token = Jwts.builder()
+            .subject("no-expiry")
+            .claim("userId", 1L)
+            .claim("role", "USER")
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+
+        assertThat(jwtService.verifyToken(token)).isEmpty();
+        assertThat(verifiedTokenCache.verify(token)).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tradereads.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.BookService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BookHttpCachingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("cacheowner", "secret-hash", "USER", "cacheowner@example.com", null));
+        first = bookService.saveBook(new Book("First", "Author", "isbn-e1", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+        second = bookService.saveBook(new Book("Second", "Author", "isbn-e2", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAllById(List.of(first.getId(), second.getId()));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithoutQueryingTheDatabase() throws Exception {
+        String etag = mockMvc.perform(get("/api/books"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=5"))
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        mockMvc.perform(get("/api/books").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/books/available").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsBefore);
+    }
+
+    @Test
+    void bookChangesInvalidateTheCatalogAndOnlyThatBook() throws Exception {
+        String catalogETag = mockMvc.perform(get("/api/books")).andReturn().getResponse().getHeader("ETag");
+        String firstETag = mockMvc.perform(get("/api/books/" + first.getId())).andReturn().getResponse().getHeader("ETag");
+        String secondETag = mockMvc.perform(get("/api/books/" + second.getId())).andReturn().getResponse().getHeader("ETag");
+
+        first.setTitle("First, revised");
+        bookService.updateBook(first);
+
+        mockMvc.perform(get("/api/books").header("If-None-Match", catalogETag)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/" + first.getId()).header("If-None-Match", firstETag)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/" + second.getId()).header("If-None-Match", secondETag)).andExpect(status().isNotModified());
+    }
+}
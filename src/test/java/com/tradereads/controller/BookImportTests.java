@@ -0,0 +1,132 @@
+package com.tradereads.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.BookService;
+import com.tradereads.service.JwtService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "books.import.batch-size=100"})
+@AutoConfigureMockMvc
+class BookImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("importer", "secret-hash", "USER", "importer@example.com", null));
+        token = "Bearer " + jwtService.generateToken(owner.getUsername(), owner.getId(), owner.getUserRole());
+        bookService.saveBook(new Book("Existing", "Author", "isbn-existing", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAll(bookRepository.findByOwnerId(owner.getId()));
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void csvImportReportsDuplicatesAndInvalidRows() throws Exception {
+        String csv = """
+            title,author,isbn,genre,condition,description,listingType
+            "Dune, Deluxe",Frank Herbert,isbn-dune,Science,Good,"Spice, ""worms"" and sand",TRADE
+            Already Listed,Someone,isbn-existing,Fiction,Good,,TRADE
+            Dune Again,Frank Herbert,isbn-dune,Science,Good,,GIVEAWAY
+            ,No Title,isbn-x,Fiction,Good,,TRADE
+            Bad Type,Someone,isbn-y,Fiction,Good,,AUCTION
+            Emma,Jane Austen,,Romance,Worn,,giveaway
+            """;
+        String catalogETag = mockMvc.perform(get("/api/books")).andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/api/books/my-books/import").header("Authorization", token).contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(6))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.duplicates").value(2))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.errors[0].row").value(2))
+            .andExpect(jsonPath("$.errors[0].error").value("You already have a book with this ISBN"))
+            .andExpect(jsonPath("$.errors[1].row").value(3))
+            .andExpect(jsonPath("$.errors[2].error").value("Title is required"))
+            .andExpect(jsonPath("$.errors[3].error").value("Invalid listing type"));
+
+        Book dune = bookRepository.findByOwnerId(owner.getId()).stream().filter(b -> "isbn-dune".equals(b.getIsbn())).findFirst().orElseThrow();
+        assertThat(dune.getTitle()).isEqualTo("Dune, Deluxe");
+        assertThat(dune.getDescription()).isEqualTo("Spice, \"worms\" and sand");
+        assertThat(dune.getStatus()).isEqualTo(BookStatus.AVAILABLE);
+        assertThat(bookService.searchBooks("herbert", null)).extracting("id").containsExactly(dune.getId());
+        mockMvc.perform(get("/api/books").header("If-None-Match", catalogETag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void ndjsonImportIsWrittenInJdbcBatches() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            ndjson.append("{\"title\":\"Book ").append(i).append("\",\"author\":\"Author\",\"isbn\":\"isbn-").append(i)
+                .append("\",\"listingType\":\"TRADE\"}\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(post("/api/books/my-books/import").header("Authorization", token).contentType(MediaType.APPLICATION_NDJSON).content(ndjson.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1000))
+            .andExpect(jsonPath("$.errors").isEmpty());
+
+        // 10 batches of 100 plus 20 sequence calls, instead of 1000 single-row inserts
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore).isLessThan(50);
+        assertThat(bookRepository.findByOwnerId(owner.getId())).hasSize(1001);
+    }
+
+    @Test
+    void malformedInputStopsTheImportButKeepsEarlierRows() throws Exception {
+        String ndjson = "{\"title\":\"Good\",\"author\":\"A\",\"isbn\":\"isbn-ok\",\"listingType\":\"TRADE\"}\n{\"title\": oops}\n";
+
+        mockMvc.perform(post("/api/books/my-books/import").header("Authorization", token).contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+}
@@ -0,0 +1,109 @@
+package com.tradereads.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.TradeRequestService;
+
+// The scrape is only permitted on the management listener, so this runs real servers on random ports
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "management.server.port=0",
+    "management.endpoints.web.exposure.include=health,prometheus",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    private User owner;
+    private User requester;
+    private Book giveaway;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("metricsowner", "secret-hash", "USER", "metricsowner@example.com", null));
+        requester = userRepository.save(new User("metricsrequester", "secret-hash", "USER", "metricsrequester@example.com", null));
+        giveaway = bookRepository.save(new Book("Free Book", "Author", "isbn-metrics", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeRequestRepository.deleteAll();
+        bookRepository.deleteAllById(List.of(giveaway.getId()));
+        userRepository.delete(requester);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void prometheusScrapeCoversRequestsTransitionsTokensAndThePool() throws Exception {
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/trades/counts").header("Authorization", "Bearer not-a-token")).andExpect(status().isForbidden());
+
+        Long id = tradeRequestService.createTradeRequest(requester.getId(), giveaway.getId(), null, "Please!").getId();
+        tradeRequestService.declineTradeRequest(id, owner.getId());
+        assertThatThrownBy(() -> tradeRequestService.declineTradeRequest(id, owner.getId())).isInstanceOf(IllegalArgumentException.class);
+
+        HttpResponse<String> response;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build();
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        assertThat(response.statusCode()).isEqualTo(200);
+        String scrape = response.body();
+
+        assertThat(scrape)
+            .containsPattern("http_server_requests_seconds_count\\{.*uri=\"/api/books\".*\\}")
+            .containsPattern("trades_transitions_seconds_count\\{.*outcome=\"success\",type=\"created\".*\\}")
+            .containsPattern("trades_transitions_seconds_count\\{.*outcome=\"rejected\",type=\"declined\".*\\}")
+            .containsPattern("jwt_verifications_total\\{.*result=\"invalid\".*\\} [1-9]")
+            .containsPattern("spring_data_repository_invocations_seconds_count\\{.*repository=\"TradeRequestRepository\".*\\}")
+            .contains("hikaricp_connections_pending")
+            .contains("hibernate_statements_total")
+            .contains("password_hashing_queue")
+            .contains("trades_events_connections");
+    }
+}
@@ -0,0 +1,106 @@
+package com.tradereads.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tradereads.components.TradeEventBroadcaster;
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.JwtService;
+import com.tradereads.service.TradeRequestService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TradeEventStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private TradeEventBroadcaster tradeEventBroadcaster;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    private User owner;
+    private User requester;
+    private Book giveaway;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("streamowner", "secret-hash", "USER", "streamowner@example.com", null));
+        requester = userRepository.save(new User("streamrequester", "secret-hash", "USER", "streamrequester@example.com", null));
+        giveaway = bookRepository.save(new Book("Free Book", "Author", "isbn-stream", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeRequestRepository.deleteAll();
+        bookRepository.delete(giveaway);
+        userRepository.delete(requester);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void streamRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/trades/events")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void ownerReceivesCountsOnConnectAndAfterEachTransition() throws Exception {
+        String token = jwtService.generateToken(owner.getUsername(), owner.getId(), owner.getUserRole());
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/trades/events").header("Authorization", "Bearer " + token))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+        awaitContent(stream, "\"pendingIncoming\":0");
+
+        Long tradeRequestId = tradeRequestService.createTradeRequest(requester.getId(), giveaway.getId(), null, "Please!").getId();
+        awaitContent(stream, "\"type\":\"CREATED\"");
+        awaitContent(stream, "\"pendingIncoming\":1");
+
+        tradeRequestService.declineTradeRequest(tradeRequestId, owner.getId());
+        awaitContent(stream, "\"type\":\"DECLINED\"");
+        assertThat(tradeEventBroadcaster.getConnectionCount()).isEqualTo(1);
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!response.getContentAsString().contains(expected) && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(response.getContentAsString()).contains(expected);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tradereads.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+import com.tradereads.service.JwtService;
+import com.tradereads.service.TradeRequestService;
+
+// Transitions answer with the trade request itself, so its parties must be loaded, not lazy proxies
+@SpringBootTest
+@AutoConfigureMockMvc
+class TradeRequestControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    private User owner;
+    private User requester;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("ctrlowner", "secret-hash", "USER", "ctrlowner@example.com", null));
+        requester = userRepository.save(new User("ctrlrequester", "secret-hash", "USER", "ctrlrequester@example.com", null));
+        first = bookRepository.save(new Book("First", "Author", "isbn-ctrl1", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+        second = bookRepository.save(new Book("Second", "Author", "isbn-ctrl2", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeRequestRepository.deleteAll();
+        bookRepository.deleteAllById(List.of(first.getId(), second.getId()));
+        userRepository.delete(requester);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void acceptRespondsWithTheAcceptedRequest() throws Exception {
+        Long id = tradeRequestService.createTradeRequest(requester.getId(), first.getId(), null, "Please!").getId();
+
+        mockMvc.perform(put("/api/trades/" + id + "/accept").header("Authorization", bearer(owner)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tradeRequest.status").value("ACCEPTED"))
+            .andExpect(jsonPath("$.tradeRequest.requester.username").value("ctrlrequester"));
+    }
+
+    @Test
+    void declineAndLookupRespondWithTheRequest() throws Exception {
+        Long id = tradeRequestService.createTradeRequest(requester.getId(), second.getId(), null, "Please!").getId();
+
+        mockMvc.perform(put("/api/trades/" + id + "/decline").header("Authorization", bearer(owner)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tradeRequest.status").value("DECLINED"));
+        mockMvc.perform(get("/api/trades/" + id).header("Authorization", bearer(requester)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.owner.username").value("ctrlowner"));
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(user.getUsername(), user.getId(), user.getUserRole());
+    }
+}
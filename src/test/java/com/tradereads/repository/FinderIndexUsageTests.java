@@ -0,0 +1,126 @@
+package com.tradereads.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.TradeRequest.TradeStatus;
+
+// Runs every hot finder, captures the SQL Hibernate generates and EXPLAINs it on the migrated H2 schema.
+// Fails if the driving table of any finder is read with a full table scan.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tradereads.repository.FinderIndexUsageTests$RecordingInspector")
+class FinderIndexUsageTests {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    interface Finder {
+        void run(BookRepository books, TradeRequestRepository trades);
+    }
+
+    static Stream<Arguments> finders() {
+        String available = BookStatus.AVAILABLE.name();
+        String trade = ListingType.TRADE.name();
+        String pending = TradeStatus.PENDING.name();
+        return Stream.of(
+            finder("findByOwnerId", (b, t) -> b.findByOwnerId(1L), 1L),
+            finder("findByOwnerIdAndStatus", (b, t) -> b.findByOwnerIdAndStatus(1L, BookStatus.AVAILABLE), 1L, available),
+            finder("findByGenre", (b, t) -> b.findByGenre("Fiction"), "Fiction"),
+            finder("findByOwnerIdAndGenre", (b, t) -> b.findByOwnerIdAndGenre(1L, "Fiction"), 1L, "Fiction"),
+            finder("findByStatus", (b, t) -> b.findByStatus(BookStatus.AVAILABLE), available),
+            finder("findByStatusAndOwnerIdNot", (b, t) -> b.findByStatusAndOwnerIdNot(BookStatus.AVAILABLE, 1L), available, 1L),
+            finder("findByListingType", (b, t) -> b.findByListingType(ListingType.TRADE), trade),
+            finder("findByStatusAndListingType", (b, t) -> b.findByStatusAndListingType(BookStatus.AVAILABLE, ListingType.TRADE), available, trade),
+            finder("findByOwnerIdAndListingType", (b, t) -> b.findByOwnerIdAndListingType(1L, ListingType.TRADE), 1L, trade),
+            finder("findByOwnerIdAndStatusAndListingType", (b, t) -> b.findByOwnerIdAndStatusAndListingType(1L, BookStatus.AVAILABLE, ListingType.TRADE), 1L, available, trade),
+            finder("existsByIsbnAndOwnerId", (b, t) -> b.existsByIsbnAndOwnerId("9780000000000", 1L), "9780000000000", 1L),
+            finder("findCatalogPage first page", (b, t) -> b.findCatalogPage(null, null, null, null, 20)),
+            finder("findCatalogPage after cursor", (b, t) -> b.findCatalogPage(100L, null, null, null, 20), 100L),
+            finder("findCatalogPage by genre", (b, t) -> b.findCatalogPage(100L, "Fiction", null, null, 20), 100L, "Fiction"),
+            finder("findCatalogPage by status", (b, t) -> b.findCatalogPage(100L, null, BookStatus.AVAILABLE, null, 20), 100L, available),
+            finder("findCatalogPage by listing type", (b, t) -> b.findCatalogPage(100L, null, null, ListingType.TRADE, 20), 100L, trade),
+            finder("findListings by genre", (b, t) -> b.findListings("Fiction", null, null, null), "Fiction"),
+            finder("findListings by status", (b, t) -> b.findListings(null, BookStatus.AVAILABLE, null, 1L), available, 1L),
+            finder("findListings by listing type", (b, t) -> b.findListings(null, null, ListingType.TRADE, 1L), trade, 1L),
+
+            finder("findByRequesterIdOrderByCreatedAtDesc", (b, t) -> t.findByRequesterIdOrderByCreatedAtDesc(1L), 1L),
+            finder("findByOwnerIdOrderByCreatedAtDesc", (b, t) -> t.findByOwnerIdOrderByCreatedAtDesc(1L), 1L),
+            finder("findByRequesterIdAndStatusOrderByCreatedAtDesc", (b, t) -> t.findByRequesterIdAndStatusOrderByCreatedAtDesc(1L, TradeStatus.PENDING), 1L, pending),
+            finder("findByOwnerIdAndStatusOrderByCreatedAtDesc", (b, t) -> t.findByOwnerIdAndStatusOrderByCreatedAtDesc(1L, TradeStatus.PENDING), 1L, pending),
+            finder("findByIdAndRequesterId", (b, t) -> t.findByIdAndRequesterId(1L, 1L), 1L, 1L),
+            finder("findPendingTradeRequest", (b, t) -> t.findPendingTradeRequest(1L, 1L), 1L, 1L),
+            finder("findByRequestedBookIdOrderByCreatedAtDesc", (b, t) -> t.findByRequestedBookIdOrderByCreatedAtDesc(1L), 1L),
+            finder("findByInvolvedBookId", (b, t) -> t.findByInvolvedBookId(1L), 1L, 1L),
+            finder("findPendingForBooks", (b, t) -> t.findPendingForBooks(List.of(1L, 2L), 3L), 3L, 1L, 2L, 1L, 2L),
+            finder("findOpenWishes", (b, t) -> t.findOpenWishes(0L, PageRequest.ofSize(100)), 0L),
+            finder("countPendingRequestForUser", (b, t) -> t.countPendingRequestForUser(1L), 1L),
+            finder("countPendingRequestsByUser", (b, t) -> t.countPendingRequestsByUser(1L), 1L)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void finderUsesAnIndex(String name, Finder finder, Object[] parameters) throws Exception {
+        RecordingInspector.statements.clear();
+        finder.run(bookRepository, tradeRequestRepository);
+        assertThat(RecordingInspector.statements).as("SQL issued by %s", name).isNotEmpty();
+
+        String plan = explain(RecordingInspector.statements.get(0), parameters);
+        assertThat(plan).as("plan for %s", name).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql, Object[] parameters) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                // Anything past the finder arguments is a row limit (exists/single-result queries)
+                statement.setObject(i, i <= parameters.length ? parameters[i - 1] : 1);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    private static Arguments finder(String name, Finder finder, Object... parameters) {
+        return Arguments.of(name, finder, parameters);
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
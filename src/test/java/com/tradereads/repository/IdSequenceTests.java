@@ -0,0 +1,122 @@
+package com.tradereads.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.config.IdSequenceIncrements;
+import com.tradereads.model.RefreshToken;
+import com.tradereads.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "persistence.id-allocation-size=20"})
+class IdSequenceTests {
+    private static final String MIGRATION_DB_URL = "jdbc:h2:mem:id-sequence-migration;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(new User("sequences", "secret-hash", "USER", "sequences@example.com", null));
+    }
+
+    @AfterEach
+    void cleanup() {
+        refreshTokenRepository.deleteAll(refreshTokenRepository.findByUserId(user.getId()));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void savedEntitiesAreInsertedInJdbcBatches() {
+        List<RefreshToken> tokens = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < 45; i++) {
+            byte[] hash = ByteBuffer.allocate(32).putInt(i).putLong(user.getId()).array();
+            tokens.add(new RefreshToken(hash, user.getId(), now.plusSeconds(3600), now, null, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        List<RefreshToken> saved = refreshTokenRepository.saveAll(tokens);
+
+        // Three sequence calls (blocks of 20, the sequence's increment) and one batched insert, instead of 45 inserts
+        assertThat(statistics.getPrepareStatementCount() - statementsBefore).isEqualTo(4);
+        assertThat(saved).extracting(RefreshToken::getId).doesNotHaveDuplicates().doesNotContainNull();
+    }
+
+    @Test
+    void migrationStartsAfterExistingIdsAndFollowsTheAllocationSize() throws SQLException {
+        // A database from before the sequences that already holds rows
+        Flyway.configure().dataSource(MIGRATION_DB_URL, "sa", "").locations("classpath:db/migration").target("8").load().migrate();
+        try (Connection connection = DriverManager.getConnection(MIGRATION_DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (id, username, email, password, user_role) values (70, 'existing', 'existing@example.com', 'x', 'USER')");
+        }
+
+        migrate(50);
+        long first = nextBlockEnd("users_seq");
+        // Pooled ids run from (value - increment, value]
+        assertThat(first - 50).isGreaterThanOrEqualTo(70);
+        assertThat(increment("users_seq")).isEqualTo(50);
+        assertThat(increment("books_seq")).isEqualTo(50);
+
+        // Changing the setting re-runs the repeatable migration; the next block starts past everything handed out
+        migrate(20);
+        assertThat(increment("users_seq")).isEqualTo(20);
+        assertThat(increment("trade_cycles_seq")).isEqualTo(20);
+        assertThat(nextBlockEnd("users_seq") - 20).isGreaterThanOrEqualTo(first);
+    }
+
+    private static void migrate(int allocationSize) {
+        Flyway.configure()
+            .dataSource(MIGRATION_DB_URL, "sa", "")
+            .locations("classpath:db/migration")
+            .javaMigrations(new IdSequenceIncrements(allocationSize))
+            .load()
+            .migrate();
+    }
+
+    private static long nextBlockEnd(String sequence) throws SQLException {
+        return queryLong("select nextval('" + sequence + "')");
+    }
+
+    private static long increment(String sequence) throws SQLException {
+        return queryLong("select increment from information_schema.sequences where lower(sequence_name) = '" + sequence + "'");
+    }
+
+    private static long queryLong(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(MIGRATION_DB_URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tradereads.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.User;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TradeRequestRepositoryTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User requester;
+
+    @BeforeEach
+    void seed() {
+        owner = entityManager.persist(new User("owner", "secret-hash", "USER", "owner@example.com", null));
+        for (int i = 0; i < 5; i++) {
+            requester = entityManager.persist(new User("requester" + i, "secret-hash", "USER", "requester" + i + "@example.com", null));
+            Book requested = entityManager.persist(new Book("Wanted " + i, "Author", "isbn-w" + i, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+            Book offered = entityManager.persist(new Book("Offered " + i, "Author", "isbn-o" + i, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, requester));
+            entityManager.persist(new TradeRequest(requester, owner, requested, offered, "Swap?"));
+        }
+        // The last requester also asks 4 other owners, so the outbox spans several owners and books
+        for (int i = 0; i < 4; i++) {
+            User other = entityManager.persist(new User("other" + i, "secret-hash", "USER", "other" + i + "@example.com", null));
+            Book theirs = entityManager.persist(new Book("Theirs " + i, "Author", "isbn-t" + i, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, other));
+            Book mine = entityManager.persist(new Book("Mine " + i, "Author", "isbn-m" + i, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, requester));
+            entityManager.persist(new TradeRequest(requester, other, theirs, mine, "Swap?"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void incomingRequestsLoadInOneStatement() {
+        List<TradeRequest> inbox = tradeRequestRepository.findByOwnerIdOrderByCreatedAtDesc(owner.getId());
+        touchAssociations(inbox);
+
+        assertThat(inbox).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void outgoingRequestsLoadInOneStatement() {
+        List<TradeRequest> outbox = tradeRequestRepository.findByRequesterIdOrderByCreatedAtDesc(requester.getId());
+        touchAssociations(outbox);
+
+        assertThat(outbox).hasSize(5);
+        assertThat(outbox).extracting(tr -> tr.getOwner().getId()).doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Mirrors what JSON serialization of the controller response reads
+    private void touchAssociations(List<TradeRequest> tradeRequests) {
+        for (TradeRequest tr : tradeRequests) {
+            tr.getRequester().getUsername();
+            tr.getOwner().getUsername();
+            tr.getRequestedBook().getOwner().getUsername();
+            tr.getOfferedBook().getOwner().getUsername();
+        }
+    }
+}
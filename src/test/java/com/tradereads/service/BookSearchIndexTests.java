@@ -0,0 +1,45 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookSearchIndexTests {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void seed() {
+        index = new BookSearchIndex();
+        index.upsert(1L, "The Hobbit", "J. R. R. Tolkien", "Fantasy", "A hobbit goes on an adventure");
+        index.upsert(2L, "Dune", "Frank Herbert", "Science Fiction", "Desert planet politics");
+        index.upsert(3L, "Cien años de soledad", "Gabriel García Márquez", "Fiction", "The Buendía family");
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        index.upsert(4L, "Hobbit Companion", "Someone", "Reference", null);
+        index.upsert(5L, "Maps", "Someone", "Reference", "Includes a hobbit map");
+
+        assertThat(index.search("hobbit", 10)).hasSize(3).endsWith(5L);
+    }
+
+    @Test
+    void prefixAndAccentInsensitiveMatching() {
+        assertThat(index.search("tolk", 10)).containsExactly(1L);
+        assertThat(index.search("garcia", 10)).containsExactly(3L);
+        assertThat(index.search("fic", 10)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void updatesAndRemovalsAreIncremental() {
+        index.upsert(2L, "Dune Messiah", "Frank Herbert", "Science Fiction", null);
+        assertThat(index.search("messiah", 10)).containsExactly(2L);
+        assertThat(index.search("desert", 10)).isEmpty();
+
+        index.remove(1L);
+        assertThat(index.search("hobbit", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
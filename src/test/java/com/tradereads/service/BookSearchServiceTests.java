@@ -0,0 +1,74 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.tradereads.dto.BookListingDTO;
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.UserRepository;
+
+@SpringBootTest
+class BookSearchServiceTests {
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @MockitoSpyBean
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Book edited;
+    private Book removed;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("indexer", "secret-hash", "USER", "indexer@example.com", null));
+        edited = bookRepository.save(new Book("Quokka Tales", "Author", "isbn-search-1", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+        removed = bookRepository.save(new Book("Numbat Notes", "Author", "isbn-search-2", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookRepository.deleteAllById(List.of(edited.getId(), removed.getId()));
+        userRepository.delete(owner);
+        bookSearchService.remove(edited.getId());
+        bookSearchService.remove(removed.getId());
+    }
+
+    @Test
+    void updatesCommittedDuringARebuildBatchAreNotOverwrittenByIt() {
+        // The rebuild reads its batch, then an edit and a delete commit before it applies that batch
+        doAnswer(invocation -> {
+            List<BookListingDTO> batch = bookRepository.findListingsByIds(List.of(edited.getId(), removed.getId()));
+            Book renamed = new Book("Wombat Tales", "Author", "isbn-search-1", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner);
+            renamed.setId(edited.getId());
+            bookSearchService.index(renamed);
+            bookSearchService.remove(removed.getId());
+            return batch;
+        }).when(bookRepository).findCatalogPage(isNull(), isNull(), isNull(), isNull(), anyInt());
+
+        bookSearchService.rebuild();
+
+        assertThat(bookSearchService.search("wombat", 10)).extracting(BookListingDTO::getId).contains(edited.getId());
+        assertThat(bookSearchService.search("quokka", 10)).extracting(BookListingDTO::getId).doesNotContain(edited.getId());
+        assertThat(bookSearchService.search("numbat", 10)).extracting(BookListingDTO::getId).doesNotContain(removed.getId());
+    }
+}
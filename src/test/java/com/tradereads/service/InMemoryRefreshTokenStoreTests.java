@@ -0,0 +1,76 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.model.RefreshToken;
+import com.tradereads.model.User;
+import com.tradereads.repository.RefreshTokenRepository;
+import com.tradereads.repository.UserRepository;
+
+// The scheduled flush is pushed out of the way, so every row seen here was written by a revocation or by backpressure
+@SpringBootTest(properties = {
+    "refresh-token.store=memory",
+    "refresh-token.write-behind.flush-interval-ms=3600000",
+    "refresh-token.write-behind.max-pending=3",
+    "refresh-token.max-sessions=10"
+})
+class InMemoryRefreshTokenStoreTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private InMemoryRefreshTokenStore store;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        store.flush();
+        user = userRepository.save(new User("write-behind", "secret-hash", "USER", "write-behind@example.com", null));
+    }
+
+    @AfterEach
+    void cleanup() {
+        refreshTokenService.revokeAllUserTokens(user.getId());
+        store.flush();
+        refreshTokenRepository.deleteAll(refreshTokenRepository.findByUserId(user.getId()));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void revocationReachesTheDatabaseBeforeReturning() {
+        String token = refreshTokenService.createRefreshToken(user.getId(), "device", "127.0.0.1");
+        store.flush();
+        assertThat(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(token))).isPresent();
+
+        refreshTokenService.revokeRefreshToken(token);
+
+        assertThat(refreshTokenService.validateRefreshToken(token)).isFalse();
+        assertThat(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(token))).isEmpty();
+    }
+
+    @Test
+    void fullQueueIsFlushedByTheNextLogin() {
+        for (int i = 0; i < 4; i++) {
+            refreshTokenService.createRefreshToken(user.getId(), "device-" + i, "127.0.0.1");
+        }
+
+        // The fourth login found three queued inserts and wrote them before queueing its own
+        assertThat(refreshTokenRepository.findByUserId(user.getId())).extracting(RefreshToken::getDeviceInfo)
+            .containsExactlyInAnyOrder("device-0", "device-1", "device-2");
+        assertThat(refreshTokenService.getUserActiveSessions(user.getId())).hasSize(4);
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+
+@SpringBootTest
+class PendingTradeCountersTests {
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private PendingTradeCounterReconciler reconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User requester;
+    private Book first;
+    private Book second;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User("counterowner", "secret-hash", "USER", "counterowner@example.com", null));
+        requester = userRepository.save(new User("counterrequester", "secret-hash", "USER", "counterrequester@example.com", null));
+        first = bookRepository.save(new Book("First", "Author", "isbn-c1", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+        second = bookRepository.save(new Book("Second", "Author", "isbn-c2", "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, owner));
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeRequestRepository.deleteAll();
+        bookRepository.deleteAll(List.of(first, second));
+        userRepository.delete(requester);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void countersFollowEachTransition() {
+        Long firstRequest = tradeRequestService.createTradeRequest(requester.getId(), first.getId(), null, null).getId();
+        Long secondRequest = tradeRequestService.createTradeRequest(requester.getId(), second.getId(), null, null).getId();
+        assertCounts(2, 2);
+
+        tradeRequestService.declineTradeRequest(firstRequest, owner.getId());
+        assertCounts(1, 1);
+
+        tradeRequestService.deleteTradeRequest(secondRequest, requester.getId());
+        assertCounts(0, 0);
+    }
+
+    @Test
+    void reconcilerRepairsDrift() {
+        tradeRequestService.createTradeRequest(requester.getId(), first.getId(), null, null);
+        jdbcTemplate.update("UPDATE user_trade_counters SET pending_incoming = 42 WHERE user_id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM user_trade_counters WHERE user_id = ?", requester.getId());
+
+        assertThat(reconciler.reconcile()).isGreaterThanOrEqualTo(2);
+        assertCounts(1, 1);
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    private void assertCounts(long ownerIncoming, long requesterOutgoing) {
+        assertThat(tradeRequestService.getPendingIncomingRequestsCount(owner.getId())).isEqualTo(ownerIncoming);
+        assertThat(tradeRequestService.getPendingOutgoingRequestsCount(owner.getId())).isZero();
+        assertThat(tradeRequestService.getPendingOutgoingRequestsCount(requester.getId())).isEqualTo(requesterOutgoing);
+        assertThat(tradeRequestService.getPendingIncomingRequestsCount(requester.getId())).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.model.RefreshToken;
+import com.tradereads.model.User;
+import com.tradereads.repository.RefreshTokenRepository;
+import com.tradereads.repository.UserRepository;
+
+@SpringBootTest(properties = "refresh-token.max-sessions=3")
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(new User("sessions", "secret-hash", "USER", "sessions@example.com", null));
+    }
+
+    @AfterEach
+    void cleanup() {
+        refreshTokenRepository.deleteAll(refreshTokenRepository.findByUserId(user.getId()));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void loginBeyondCapDropsOldestSessions() {
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            issued.add(refreshTokenService.createRefreshToken(user.getId(), "device-" + i, "127.0.0.1"));
+        }
+
+        assertThat(refreshTokenService.getUserActiveSessions(user.getId())).hasSize(3);
+        assertThat(issued).filteredOn(refreshTokenService::validateRefreshToken).containsExactlyElementsOf(issued.subList(2, 5));
+    }
+
+    @Test
+    void tokensAreRandomAndStoredOnlyAsDigest() {
+        String token = refreshTokenService.createRefreshToken(user.getId(), "device", "127.0.0.1");
+
+        assertThat(token).hasSize(43).isNotEqualTo(refreshTokenService.createRefreshToken(user.getId(), "device", "127.0.0.1"));
+        assertThat(refreshTokenService.getUserIdFromRefreshToken(token)).contains(user.getId());
+        assertThat(refreshTokenRepository.findByUserId(user.getId()))
+            .extracting(RefreshToken::getTokenHash)
+            .contains(RefreshTokenService.hash(token))
+            .allSatisfy(digest -> assertThat(digest).hasSize(32));
+
+        refreshTokenService.revokeRefreshToken(token);
+        assertThat(refreshTokenService.validateRefreshToken(token)).isFalse();
+    }
+
+    @Test
+    void parallelLoginsNeverExceedCap() throws Exception {
+        int logins = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenService.createRefreshToken(user.getId(), "parallel", "127.0.0.1");
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(refreshTokenService.getUserActiveSessions(user.getId())).hasSize(3);
+    }
+}
@@ -0,0 +1,142 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.TradeRequest.TradeStatus;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+
+@SpringBootTest
+class TradeAcceptanceConcurrencyTests {
+    private static final int OWNERS = 8;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    private User requester;
+    private final List<User> owners = new ArrayList<>();
+    private final List<Long> bookIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        requester = userRepository.save(new User("acceptrequester", "secret-hash", "USER", "acceptrequester@example.com", null));
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(userRepository.save(new User("acceptowner" + i, "secret-hash", "USER", "acceptowner" + i + "@example.com", null)));
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeRequestRepository.deleteAll();
+        bookRepository.deleteAllById(bookIds);
+        userRepository.delete(requester);
+        userRepository.deleteAll(owners);
+    }
+
+    @Test
+    void parallelAcceptsOfOneOfferedBookTradeItExactlyOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(OWNERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // The requester offers the same book to every owner; all owners accept at once
+                Book offered = book(requester, "offered-" + round);
+                List<Long> requestIds = new ArrayList<>();
+                for (int i = 0; i < OWNERS; i++) {
+                    Book wanted = book(owners.get(i), "wanted-" + round + "-" + i);
+                    requestIds.add(tradeRequestService.createTradeRequest(requester.getId(), wanted.getId(), offered.getId(), null).getId());
+                }
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < OWNERS; i++) {
+                    Long requestId = requestIds.get(i);
+                    Long ownerId = owners.get(i).getId();
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            tradeRequestService.acceptTradeRequest(requestId, ownerId);
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int accepted = 0;
+                for (Future<Boolean> result : results) {
+                    accepted += result.get() ? 1 : 0;
+                }
+                assertThat(accepted).isEqualTo(1);
+
+                List<TradeRequest> requests = tradeRequestRepository.findAllById(requestIds);
+                assertThat(requests).filteredOn(tr -> tr.getStatus() == TradeStatus.ACCEPTED).hasSize(1);
+                assertThat(requests).filteredOn(tr -> tr.getStatus() == TradeStatus.DECLINED).hasSize(OWNERS - 1);
+                assertThat(bookRepository.findById(offered.getId()).orElseThrow().getStatus()).isEqualTo(BookStatus.TRADED);
+                assertThat(bookRepository.findAllById(bookIds)).filteredOn(b -> b.getStatus() == BookStatus.TRADED).hasSize(2 * (round + 1));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(tradeRequestService.getPendingOutgoingRequestsCount(requester.getId())).isZero();
+        for (User owner : owners) {
+            assertThat(tradeRequestService.getPendingIncomingRequestsCount(owner.getId())).isZero();
+        }
+    }
+
+    @Test
+    void acceptingDeclinesOtherPendingRequestsForTheTradedBooks() {
+        User owner = owners.get(0);
+        Book wanted = book(owner, "contested");
+        Book offered = book(requester, "offer");
+        Long acceptedId = tradeRequestService.createTradeRequest(requester.getId(), wanted.getId(), offered.getId(), null).getId();
+        // A rival asks for the same book, and someone else asks for the book being offered
+        Long rivalId = tradeRequestService.createTradeRequest(owners.get(1).getId(), wanted.getId(), book(owners.get(1), "rival").getId(), null).getId();
+        Long offeredWishId = tradeRequestService.createTradeRequest(owners.get(2).getId(), offered.getId(), book(owners.get(2), "other").getId(), null).getId();
+
+        TradeRequest accepted = tradeRequestService.acceptTradeRequest(acceptedId, owner.getId());
+
+        assertThat(accepted.getStatus()).isEqualTo(TradeStatus.ACCEPTED);
+        assertThat(tradeRequestRepository.findById(rivalId).orElseThrow().getStatus()).isEqualTo(TradeStatus.DECLINED);
+        assertThat(tradeRequestRepository.findById(offeredWishId).orElseThrow().getStatus()).isEqualTo(TradeStatus.DECLINED);
+        assertThat(tradeRequestService.getPendingIncomingRequestsCount(owner.getId())).isZero();
+        assertThat(tradeRequestService.getPendingIncomingRequestsCount(requester.getId())).isZero();
+        assertThat(tradeRequestService.getPendingOutgoingRequestsCount(owners.get(1).getId())).isZero();
+    }
+
+    private Book book(User owner, String isbn) {
+        Book book = bookRepository.save(new Book("Book " + isbn, "Author", isbn, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.TRADE, owner));
+        bookIds.add(book.getId());
+        return book;
+    }
+}
@@ -0,0 +1,59 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tradereads.service.TradeCycleGraph.Wish;
+
+class TradeCycleGraphTests {
+
+    private TradeCycleGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new TradeCycleGraph(10);
+    }
+
+    // Request ids encode the edge for readability: 12 = user 1 wants a book (id 200 + owner) from user 2
+    private List<List<Long>> want(long requester, long owner) {
+        return graph.addWish(new Wish(requester * 10 + owner, requester, owner, 200 + owner));
+    }
+
+    @Test
+    void closingEdgeReportsThreeAndFourWayCycles() {
+        assertThat(want(1, 2)).isEmpty();
+        assertThat(want(2, 3)).isEmpty();
+        assertThat(want(3, 4)).isEmpty();
+        assertThat(want(2, 1)).isEmpty(); // plain 2-way swaps are left to ordinary trade requests
+
+        assertThat(want(3, 1)).containsExactly(List.of(31L, 12L, 23L));
+        assertThat(want(4, 1)).containsExactly(List.of(41L, 12L, 23L, 34L));
+    }
+
+    @Test
+    void removedWishesNoLongerCloseCycles() {
+        want(1, 2);
+        want(2, 3);
+        graph.removeWish(23L);
+
+        assertThat(want(3, 1)).isEmpty();
+        assertThat(graph.wishCount()).isEqualTo(2);
+    }
+
+    @Test
+    void removingABookDropsEveryWishForIt() {
+        want(1, 2);
+        graph.addWish(new Wish(99L, 3, 2, 202));
+        want(2, 3);
+
+        graph.removeBook(202);
+
+        assertThat(graph.containsWish(12L)).isFalse();
+        assertThat(graph.containsWish(99L)).isFalse();
+        assertThat(want(3, 1)).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.tradereads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.tradereads.model.Book;
+import com.tradereads.model.Book.BookStatus;
+import com.tradereads.model.Book.ListingType;
+import com.tradereads.model.TradeCycle;
+import com.tradereads.model.TradeRequest;
+import com.tradereads.model.User;
+import com.tradereads.repository.BookRepository;
+import com.tradereads.repository.TradeCycleRepository;
+import com.tradereads.repository.TradeRequestRepository;
+import com.tradereads.repository.UserRepository;
+
+@SpringBootTest
+class TradeCycleMatcherTests {
+
+    @Autowired
+    private TradeRequestService tradeRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TradeRequestRepository tradeRequestRepository;
+
+    @Autowired
+    private TradeCycleRepository tradeCycleRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 3; i++) {
+            User user = userRepository.save(new User("cycleuser" + i, "secret-hash", "USER", "cycleuser" + i + "@example.com", null));
+            users.add(user);
+            books.add(bookRepository.save(new Book("Book " + i, "Author", "isbn-cycle" + i, "Fiction", "Good", null, BookStatus.AVAILABLE, ListingType.GIVEAWAY, user)));
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        tradeCycleRepository.deleteAll();
+        tradeRequestRepository.deleteAll();
+        bookRepository.deleteAll(books);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void threeWayCycleIsProposedAndExpiresWhenAMemberRequestCloses() throws Exception {
+        // user0 wants user1's book, user1 wants user2's, user2 wants user0's
+        List<TradeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(tradeRequestService.createTradeRequest(users.get(i).getId(), books.get((i + 1) % 3).getId(), null, null));
+        }
+
+        await(() -> tradeRequestService.getProposedTradeCycles(users.get(0).getId()).size() == 1);
+        TradeCycle cycle = tradeRequestService.getProposedTradeCycles(users.get(2).getId()).get(0);
+        assertThat(cycle.getTradeRequests()).extracting(TradeRequest::getId)
+            .containsExactlyInAnyOrderElementsOf(requests.stream().map(TradeRequest::getId).toList());
+
+        tradeRequestService.declineTradeRequest(requests.get(1).getId(), users.get(2).getId());
+
+        assertThat(tradeRequestService.getProposedTradeCycles(users.get(0).getId())).isEmpty();
+        assertThat(tradeCycleRepository.findById(cycle.getId())).get().extracting(TradeCycle::getStatus).isEqualTo(TradeCycle.CycleStatus.EXPIRED);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!condition.getAsBoolean() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}